@@ -29,6 +29,10 @@ public class Config extends com.minelittlepony.common.util.settings.Config {
             .addComment("If true Mine Little Pony will not be considered when determining the race to use")
             .addComment("The result will always be what is set by this config file.");
 
+    public final Setting<Integer> maxAttachedParticles = value("client", "maxAttachedParticles", 128)
+            .addComment("The most spells that can have particles attached to them at once, such as shields and portals")
+            .addComment("When there are more than this the particles of the spells that were seen longest ago are removed.");
+
     public final Setting<Integer> hudPage = value("client", "hudActivePage", 0)
             .addComment("The page of abilities currently visible in the HUD. You can change this in-game using the PG_UP and PG_DWN keys (configurable)");
 
@@ -1,6 +1,8 @@
 package com.minelittlepony.unicopia;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
 import net.minecraft.resource.ResourceType;
@@ -13,6 +15,7 @@ import org.apache.logging.log4j.Logger;
 
 import com.minelittlepony.unicopia.ability.Abilities;
 import com.minelittlepony.unicopia.ability.data.tree.TreeTypeLoader;
+import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.TraitLoader;
 import com.minelittlepony.unicopia.advancement.UCriteria;
@@ -31,6 +34,10 @@ import com.minelittlepony.unicopia.network.Channel;
 import com.minelittlepony.unicopia.particle.UParticles;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
 import com.minelittlepony.unicopia.server.world.NocturnalSleepManager;
+import com.minelittlepony.unicopia.server.world.ParticleBurstQueue;
+import com.minelittlepony.unicopia.server.world.ShockwaveQueue;
+import com.minelittlepony.unicopia.server.world.SpellIndex;
+import com.minelittlepony.unicopia.server.world.SpellSyncQueue;
 import com.minelittlepony.unicopia.server.world.UGameRules;
 import com.minelittlepony.unicopia.server.world.UTreeGen;
 import com.minelittlepony.unicopia.server.world.WeatherConditions;
@@ -67,13 +74,25 @@ public class Unicopia implements ModInitializer {
         TrinketsDelegate.getInstance().bootstrap();
 
         ServerTickEvents.END_WORLD_TICK.register(w -> {
+            ShockwaveQueue.get(w).tick();
             ((BlockDestructionManager.Source)w).getDestructionManager().tick();
             ZapAppleStageStore.get(w).tick();
             WeatherConditions.get(w).tick();
+            SpellSyncQueue.get(w).flush();
+            ParticleBurstQueue.get(w).flush();
             if (Debug.DEBUG_SPELLBOOK_CHAPTERS) {
                 SpellbookChapterLoader.INSTANCE.sendUpdate(w.getServer());
             }
         });
+        ServerChunkEvents.CHUNK_LOAD.register((w, chunk) -> {
+            BlockDestructionManager.of(w).getOverlay().onChunkLoaded(chunk.getPos());
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((w, chunk) -> {
+            BlockDestructionManager.of(w).getOverlay().onChunkUnloaded(chunk.getPos());
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, w) -> {
+            Caster.of(entity).ifPresent(SpellIndex.get(w)::remove);
+        });
         NocturnalSleepManager.bootstrap();
 
         ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(TreeTypeLoader.INSTANCE);
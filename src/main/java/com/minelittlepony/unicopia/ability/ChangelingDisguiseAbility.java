@@ -60,7 +60,7 @@ public class ChangelingDisguiseAbility extends ChangelingFeedAbility {
         }
 
         player.calculateDimensions();
-        iplayer.setDirty();
+        iplayer.setDirty(Pony.Component.MANA);
     }
 
     @Override
@@ -138,9 +138,7 @@ public class EarthPonyKickAbility implements Ability<Pos> {
         BlockPos pos = data.pos();
         TreeType tree = TreeType.at(pos, player.asWorld());
 
-        return tree == TreeType.NONE || tree.findBase(player.asWorld(), pos)
-                .map(base -> tree.countBlocks(player.asWorld(), pos) > 0)
-                .orElse(false);
+        return tree == TreeType.NONE || tree.countBlocks(player.asWorld(), pos) > 0;
     }
 
     @Override
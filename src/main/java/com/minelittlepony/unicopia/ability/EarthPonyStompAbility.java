@@ -13,6 +13,7 @@ import com.minelittlepony.unicopia.item.enchantment.UEnchantments;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.particle.UParticles;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.ShockwaveQueue;
 import com.minelittlepony.unicopia.util.PosHelper;
 
 import net.minecraft.block.Block;
@@ -25,7 +26,6 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
@@ -154,17 +154,24 @@ public class EarthPonyStompAbility implements Ability<Hit> {
         });
     }
 
+    /**
+     * Sends a shockwave out from the given position, damaging the blocks it passes over.
+     * <p>
+     * The wave moves outward one block every tick and is only simulated on the server,
+     * which sends clients the blocks it hit so they can show the effects themselves.
+     */
     public static void spawnEffectAround(Entity source, BlockPos center, double radius, double range) {
-        BlockPos.stream(new BlockBox(center).expand(MathHelper.ceil(radius))).forEach(i -> {
-            double dist = Math.sqrt(i.getSquaredDistance(source.getX(), source.getY(), source.getZ()));
-
-            if (dist <= radius) {
-                spawnEffect(source.getWorld(), i, dist, range);
-            }
-        });
+        if (!source.getWorld().isClient) {
+            ShockwaveQueue.get(source.getWorld()).add(source.getPos(), center, radius, range);
+        }
     }
 
-    public static void spawnEffect(World w, BlockPos pos, double dist, double rad) {
+    /**
+     * Applies a shockwave's damage to a single block.
+     *
+     * @return true if the block was damaged without being broken, and clients still need to be shown its break effect
+     */
+    public static boolean spawnEffect(World w, BlockPos pos, double dist, double rad) {
         if (w.getBlockState(pos.up()).isAir()) {
             BlockState state = w.getBlockState(pos);
 
@@ -172,15 +179,22 @@ public class EarthPonyStompAbility implements Ability<Hit> {
             float scaledHardness = (1 - hardness / 70);
             float damage = hardness < 0 ? 0 : MathHelper.clamp((int)((1 - dist / rad) * 9 * scaledHardness), 0, BlockDestructionManager.MAX_DAMAGE - 1);
 
-            stompBlock(w, pos, damage);
+            return stompBlock(w, pos, state, damage);
         }
+        return false;
     }
 
     public static void stompBlock(World w, BlockPos pos, float damage) {
         BlockState state = w.getBlockState(pos);
 
+        if (stompBlock(w, pos, state, damage)) {
+            w.syncWorldEvent(WorldEvents.BLOCK_BROKEN, pos, Block.getRawIdFromState(state));
+        }
+    }
+
+    private static boolean stompBlock(World w, BlockPos pos, BlockState state, float damage) {
         if (state.isAir() || damage <= 0) {
-            return;
+            return false;
         }
 
         if (BlockDestructionManager.of(w).damageBlock(pos, damage) >= BlockDestructionManager.MAX_DAMAGE) {
@@ -194,9 +208,9 @@ public class EarthPonyStompAbility implements Ability<Hit> {
                     state.onStacksDropped((ServerWorld)w, pos, stack, true);
                 }
             }
-        } else {
-            w.syncWorldEvent(WorldEvents.BLOCK_BROKEN, pos, Block.getRawIdFromState(state));
+            return false;
         }
+        return true;
     }
 
     @Override
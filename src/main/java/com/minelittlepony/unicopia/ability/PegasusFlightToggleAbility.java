@@ -67,7 +67,7 @@ public class PegasusFlightToggleAbility implements Ability<Hit> {
         } else {
             player.getPhysics().cancelFlight(true);
         }
-        player.setDirty();
+        player.setDirty(Pony.Component.GRAVITY);
         player.setAnimation(Animation.SPREAD_WINGS, Animation.Recipient.ANYONE);
     }
 
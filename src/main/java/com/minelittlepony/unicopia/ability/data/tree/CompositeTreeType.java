@@ -0,0 +1,30 @@
+package com.minelittlepony.unicopia.ability.data.tree;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * A tree whose trunk and leaves belong to different tree types.
+ */
+record CompositeTreeType(TreeType logs, TreeType leaves) implements TreeType {
+    @Override
+    public boolean isLeaves(BlockState state) {
+        return leaves.isLeaves(state);
+    }
+
+    @Override
+    public boolean isLog(BlockState state) {
+        return logs.isLog(state);
+    }
+
+    @Override
+    public ItemStack pickRandomStack(Random random, BlockState state) {
+        return (isLeaves(state) ? leaves : logs).pickRandomStack(random, state);
+    }
+
+    @Override
+    public boolean isWide() {
+        return logs.isWide();
+    }
+}
@@ -0,0 +1,268 @@
+package com.minelittlepony.unicopia.ability.data.tree;
+
+import java.util.Optional;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.util.PosHelper;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+
+/**
+ * The logs and leaves making up a single tree, in the order they were reached walking outwards from its base.
+ * <p>
+ * Trees are explored breadth-first without recursion, reading block states straight from the chunk sections they're in.
+ * Shapes explored on the server are kept for a short while by the {@link TreeShapeCache} so repeated kicks on the same tree can reuse them.
+ */
+public final class TreeShape {
+    /**
+     * The furthest a block can be from the base of the tree, in steps, and still be counted as part of it.
+     */
+    private static final int MAX_DEPTH = 50;
+    /**
+     * The most logs checked when looking for the base of a tree with a wide trunk.
+     */
+    private static final int MAX_BASE_SEARCH = 256;
+
+    private final TreeType type;
+    private final long base;
+
+    private final LongArrayList blocks = new LongArrayList();
+    /**
+     * The depth of each block, shifted left by one, with the lowest bit set for leaves.
+     */
+    private final IntArrayList depths = new IntArrayList();
+
+    private int logCount;
+    private int leafCount;
+
+    private int minX = Integer.MAX_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int minZ = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+    private int maxZ = Integer.MIN_VALUE;
+
+    private long createdTime;
+
+    /**
+     * Gets the shape of the tree with the given base, reusing a recently explored one if nothing about it has changed.
+     */
+    static TreeShape of(TreeType type, World world, BlockPos base) {
+        if (world.isClient) {
+            return explore(type, world, base);
+        }
+        return TreeShapeCache.get(world).get(type, base);
+    }
+
+    static TreeShape explore(TreeType type, World world, BlockPos base) {
+        TreeShape shape = new TreeShape(type, base.asLong());
+        shape.createdTime = world.getTime();
+
+        SectionReader reader = new SectionReader(world);
+        LongSet visited = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        IntArrayFIFOQueue queueDepths = new IntArrayFIFOQueue();
+
+        visited.add(shape.base);
+        queue.enqueue(shape.base);
+        queueDepths.enqueue(0);
+
+        while (!queue.isEmpty()) {
+            long pos = queue.dequeueLong();
+            int depth = queueDepths.dequeueInt();
+
+            int x = BlockPos.unpackLongX(pos);
+            int y = BlockPos.unpackLongY(pos);
+            int z = BlockPos.unpackLongZ(pos);
+            BlockState state = reader.getBlockState(x, y, z);
+
+            if (type.isLeaves(state)) {
+                shape.add(pos, x, y, z, depth, true);
+            } else if (type.isLog(state)) {
+                shape.add(pos, x, y, z, depth, false);
+            } else {
+                continue;
+            }
+
+            if (depth + 1 < MAX_DEPTH) {
+                for (Direction direction : TreeType.WIDE_DIRS) {
+                    long next = BlockPos.offset(pos, direction);
+                    if (visited.add(next)) {
+                        queue.enqueue(next);
+                        queueDepths.enqueue(depth + 1);
+                    }
+                }
+            }
+        }
+
+        return shape;
+    }
+
+    /**
+     * Locates the base of the tree containing the given log.
+     */
+    static Optional<BlockPos> findBase(TreeType type, World world, BlockPos start) {
+        if (!type.isLog(world.getBlockState(start))) {
+            return Optional.empty();
+        }
+
+        if (!type.isWide()) {
+            BlockPos.Mutable pos = start.mutableCopy();
+            while (type.isLog(world.getBlockState(pos.down()))) {
+                pos.move(Direction.DOWN);
+            }
+            return Optional.of(pos.toImmutable());
+        }
+
+        // wide trunks can spread out sideways, so follow any logs below or beside the starting one
+        // and take the lowest
+        SectionReader reader = new SectionReader(world);
+        LongSet visited = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        long lowest = start.asLong();
+
+        visited.add(lowest);
+        queue.enqueue(lowest);
+
+        while (!queue.isEmpty() && visited.size() < MAX_BASE_SEARCH) {
+            long pos = queue.dequeueLong();
+            if (BlockPos.unpackLongY(pos) < BlockPos.unpackLongY(lowest)) {
+                lowest = pos;
+            }
+
+            enqueueLog(type, reader, visited, queue, BlockPos.offset(pos, Direction.DOWN));
+            for (Direction direction : PosHelper.HORIZONTAL) {
+                enqueueLog(type, reader, visited, queue, BlockPos.offset(pos, direction));
+            }
+        }
+
+        return Optional.of(BlockPos.fromLong(lowest));
+    }
+
+    private static void enqueueLog(TreeType type, SectionReader reader, LongSet visited, LongArrayFIFOQueue queue, long pos) {
+        if (visited.add(pos) && type.isLog(reader.getBlockState(BlockPos.unpackLongX(pos), BlockPos.unpackLongY(pos), BlockPos.unpackLongZ(pos)))) {
+            queue.enqueue(pos);
+        }
+    }
+
+    private TreeShape(TreeType type, long base) {
+        this.type = type;
+        this.base = base;
+    }
+
+    private void add(long pos, int x, int y, int z, int depth, boolean leaves) {
+        blocks.add(pos);
+        depths.add((depth << 1) | (leaves ? 1 : 0));
+        if (leaves) {
+            leafCount++;
+        } else {
+            logCount++;
+        }
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+    }
+
+    public TreeType getType() {
+        return type;
+    }
+
+    public int getLogCount() {
+        return logCount;
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    long getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * Checks whether a change to the block at the given position could alter the shape of this tree.
+     */
+    boolean isAffectedBy(BlockPos pos) {
+        return pos.getX() >= minX - 1 && pos.getX() <= maxX + 1
+            && pos.getY() >= minY - 1 && pos.getY() <= maxY + 1
+            && pos.getZ() >= minZ - 1 && pos.getZ() <= maxZ + 1;
+    }
+
+    /**
+     * Calls the reactors for every block in this tree that is still a log or leaves, nearest to the base first.
+     */
+    public void forEach(World w, @Nullable TreeType.Reactor logConsumer, @Nullable TreeType.Reactor leavesConsumer) {
+        for (int i = 0; i < blocks.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(blocks.getLong(i));
+            int depth = depths.getInt(i);
+            BlockState state = w.getBlockState(pos);
+
+            if ((depth & 1) != 0) {
+                if (leavesConsumer != null && type.isLeaves(state)) {
+                    leavesConsumer.react(w, state, pos, depth >> 1);
+                }
+            } else if (logConsumer != null && type.isLog(state)) {
+                logConsumer.react(w, state, pos, depth >> 1);
+            }
+        }
+    }
+
+    /**
+     * Reads block states directly from the chunk sections they're in, holding on to each section it has looked up.
+     * Blocks in chunks that aren't loaded read as air rather than loading them.
+     */
+    private static final class SectionReader {
+        private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+        private final World world;
+        private final Long2ObjectMap<ChunkSection> sections = new Long2ObjectOpenHashMap<>();
+
+        private long lastKey = Long.MIN_VALUE;
+        @Nullable
+        private ChunkSection lastSection;
+
+        SectionReader(World world) {
+            this.world = world;
+        }
+
+        BlockState getBlockState(int x, int y, int z) {
+            if (world.isOutOfHeightLimit(y)) {
+                return AIR;
+            }
+
+            long key = ChunkSectionPos.asLong(
+                    ChunkSectionPos.getSectionCoord(x),
+                    ChunkSectionPos.getSectionCoord(y),
+                    ChunkSectionPos.getSectionCoord(z)
+            );
+            if (key != lastKey) {
+                lastKey = key;
+                lastSection = sections.computeIfAbsent(key, k -> {
+                    int chunkX = ChunkSectionPos.getSectionCoord(x);
+                    int chunkZ = ChunkSectionPos.getSectionCoord(z);
+                    if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                        return null;
+                    }
+                    Chunk chunk = world.getChunk(chunkX, chunkZ);
+                    return chunk.getSection(chunk.getSectionIndex(y));
+                });
+            }
+
+            return lastSection == null ? AIR : lastSection.getBlockState(x & 15, y & 15, z & 15);
+        }
+    }
+}
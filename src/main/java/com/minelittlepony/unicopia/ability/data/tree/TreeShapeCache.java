@@ -0,0 +1,61 @@
+package com.minelittlepony.unicopia.ability.data.tree;
+
+import com.minelittlepony.unicopia.server.world.Ether;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Short-lived cache of the trees recently explored in a world, keyed by the position of their base.
+ * <p>
+ * Shapes are dropped when any block in or next to them changes, or after a few seconds.
+ */
+public class TreeShapeCache {
+    private static final int EXPIRY_TICKS = 100;
+    private static final int MAX_SIZE = 16;
+
+    private final World world;
+
+    private final Long2ObjectLinkedOpenHashMap<TreeShape> shapes = new Long2ObjectLinkedOpenHashMap<>();
+
+    private final Object locker = new Object();
+
+    public static TreeShapeCache get(World world) {
+        return Ether.get(world).getTreeShapeCache();
+    }
+
+    public TreeShapeCache(World world) {
+        this.world = world;
+    }
+
+    TreeShape get(TreeType type, BlockPos base) {
+        synchronized (locker) {
+            long time = world.getTime();
+            shapes.values().removeIf(shape -> time - shape.getCreatedTime() > EXPIRY_TICKS);
+
+            TreeShape shape = shapes.getAndMoveToLast(base.asLong());
+            if (shape != null && shape.getType().equals(type)) {
+                return shape;
+            }
+
+            shape = TreeShape.explore(type, world, base);
+            shapes.putAndMoveToLast(base.asLong(), shape);
+            if (shapes.size() > MAX_SIZE) {
+                shapes.removeFirst();
+            }
+            return shape;
+        }
+    }
+
+    /**
+     * Called when a block changes to discard any trees it might be part of.
+     */
+    public void onBlockChanged(BlockPos pos) {
+        synchronized (locker) {
+            if (!shapes.isEmpty()) {
+                shapes.values().removeIf(shape -> shape.isAffectedBy(pos));
+            }
+        }
+    }
+}
@@ -4,11 +4,12 @@ import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.util.PosHelper;
 import com.minelittlepony.unicopia.util.Weighted;
 
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.block.BlockState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
@@ -23,7 +24,8 @@ public interface TreeType {
             Set.of(),
             Set.of(),
             Weighted.of(),
-            0
+            0,
+            -1
     );
     Direction[] WIDE_DIRS = new Direction[] { Direction.UP, Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST };
 
@@ -31,73 +33,21 @@ public interface TreeType {
         traverse(w, start, consumer, consumer);
     }
 
-    default void traverse(World w, BlockPos start, Reactor logConsumer, Reactor leavesConsumer) {
-        traverse(new HashSet<>(), new HashSet<>(), w, start, 0, 50, logConsumer, leavesConsumer);
-    }
-
-    default void traverse(Set<BlockPos> logs, Set<BlockPos> leaves, World w, BlockPos start, int recurseLevel, int maxRecurse, Reactor logConsumer, Reactor leavesConsumer) {
+    default void traverse(World w, BlockPos start, @Nullable Reactor logConsumer, @Nullable Reactor leavesConsumer) {
         if (this == NONE) {
             return;
         }
 
         findBase(w, start).ifPresent(base -> {
-            traverseInner(logs, leaves, w, base, recurseLevel, maxRecurse, logConsumer, leavesConsumer);
+            TreeShape.of(this, w, base).forEach(w, logConsumer, leavesConsumer);
         });
     }
 
-    private void traverseInner(Set<BlockPos> logs, Set<BlockPos> leaves, World w, BlockPos pos, int recurseLevel, int maxRecurse, Reactor logConsumer, Reactor leavesConsumer) {
-
-        if (this == NONE || (maxRecurse > 0 && recurseLevel >= maxRecurse) || logs.contains(pos) || leaves.contains(pos)) {
-            return;
-        }
-
-        BlockState state = w.getBlockState(pos);
-        boolean yay = false;
-
-        if (isLeaves(state)) {
-            leaves.add(pos);
-            yay = true;
-            if (leavesConsumer != null) {
-                leavesConsumer.react(w, state, pos, recurseLevel);
-            }
-        } else if (isLog(state)) {
-            logs.add(pos);
-            yay = true;
-            if (logConsumer != null) {
-                logConsumer.react(w, state, pos, recurseLevel);
-            }
-        }
-
-        if (yay) {
-            PosHelper.all(pos, p -> traverseInner(logs, leaves, w, p, recurseLevel + 1, maxRecurse, logConsumer, leavesConsumer), WIDE_DIRS);
-        }
-    }
-
     /**
-     * Recursively locates the base of the tree.
+     * Locates the base of the tree.
      */
     default Optional<BlockPos> findBase(World w, BlockPos pos) {
-        return findBase(new HashSet<BlockPos>(), w, new BlockPos.Mutable(pos.getX(), pos.getY(), pos.getZ()));
-    }
-
-    private Optional<BlockPos> findBase(Set<BlockPos> done, World w, BlockPos.Mutable pos) {
-        if (done.contains(pos) || !isLog(w.getBlockState(pos))) {
-            return Optional.empty();
-        }
-
-        done.add(pos.toImmutable());
-        while (isLog(w.getBlockState(pos.down()))) {
-            done.add(pos.move(Direction.DOWN).toImmutable());
-        }
-
-        if (isWide()) {
-            PosHelper.all(pos.toImmutable(), p -> findBase(done, w, new BlockPos.Mutable(p.getX(), p.getY(), p.getZ()))
-                    .filter(a -> a.getY() < pos.getY())
-                    .ifPresent(pos::set), PosHelper.HORIZONTAL);
-        }
-
-        done.add(pos.toImmutable());
-        return Optional.of(pos.toImmutable());
+        return TreeShape.findBase(this, w, pos);
     }
 
     /**
@@ -108,21 +58,12 @@ public interface TreeType {
             return 0;
         }
 
-        Set<BlockPos> logs = new HashSet<>();
-        Set<BlockPos> leaves = new HashSet<>();
-
-        findBase(w, pos).ifPresent(base -> traverseInner(logs, leaves, w, base, 0, 50, null, null));
-
-        int logCount = logs.size();
-
-        logs.clear();
-        leaves.clear();
-
-        traverseInner(logs, leaves, w, findCanopy(w, pos), 0, 50, null, null);
-
-        int leafCount = leaves.size();
-
-        return logCount <= (leafCount / 2) ? logCount + leafCount : 0;
+        return findBase(w, pos).map(base -> {
+            TreeShape shape = TreeShape.of(this, w, base);
+            int logCount = shape.getLogCount();
+            int leafCount = shape.getLeafCount();
+            return logCount <= (leafCount / 2) ? logCount + leafCount : 0;
+        }).orElse(0);
     }
 
     /**
@@ -178,27 +119,7 @@ public interface TreeType {
         if (logs == NONE || leaves == NONE || Objects.equals(logs, leaves)) {
             return logs;
         }
-        return new TreeType() {
-            @Override
-            public boolean isLeaves(BlockState state) {
-                return leaves.isLeaves(state);
-            }
-
-            @Override
-            public boolean isLog(BlockState state) {
-                return logs.isLog(state);
-            }
-
-            @Override
-            public ItemStack pickRandomStack(Random random, BlockState state) {
-                return (isLeaves(state) ? leaves : logs).pickRandomStack(random, state);
-            }
-
-            @Override
-            public boolean isWide() {
-                return logs.isWide();
-            }
-        };
+        return new CompositeTreeType(logs, leaves);
     }
 
     public interface Reactor {
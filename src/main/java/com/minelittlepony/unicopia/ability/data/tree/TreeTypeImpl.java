@@ -17,18 +17,29 @@ public record TreeTypeImpl (
         Set<Identifier> logs,
         Set<Identifier> leaves,
         Supplier<Optional<Supplier<ItemStack>>> pool,
-        int rarity
+        int rarity,
+        int index
 ) implements TreeType {
     @Override
     public boolean isLeaves(BlockState state) {
+        if (isIndexed()) {
+            return TreeTypes.isLeaves(index, state);
+        }
         return findMatch(leaves, state) && isNonPersistent(state);
     }
 
     @Override
     public boolean isLog(BlockState state) {
+        if (isIndexed()) {
+            return TreeTypes.isLog(index, state);
+        }
         return findMatch(logs, state);
     }
 
+    private boolean isIndexed() {
+        return index >= 0 && index < TreeTypes.MAX_INDEXED;
+    }
+
     @Override
     public boolean isWide() {
         return wideTrunk;
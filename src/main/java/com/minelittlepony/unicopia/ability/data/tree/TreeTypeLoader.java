@@ -73,14 +73,18 @@ public class TreeTypeLoader extends JsonDataLoader implements IdentifiableResour
             rarity = buffer.readInt();
         }
 
-        public TreeType toTreeType(Identifier id) {
+        /**
+         * @param index The position of this tree type in the loaded list, used to look it up in the block state table.
+         */
+        public TreeTypeImpl toTreeType(Identifier id, int index) {
             return new TreeTypeImpl(
                     id,
                     wideTrunk,
                     Objects.requireNonNull(logs, "TreeType must have logs"),
                     Objects.requireNonNull(leaves, "TreeType must have leaves"),
                     Weighted.of(drops),
-                    rarity
+                    rarity,
+                    index
             );
         }
 
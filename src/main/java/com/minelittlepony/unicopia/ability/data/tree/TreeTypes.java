@@ -1,65 +1,125 @@
 package com.minelittlepony.unicopia.ability.data.tree;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.Nullable;
+
 import com.minelittlepony.unicopia.util.PosHelper;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.LeavesBlock;
 import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.random.Random;
 import net.minecraft.world.World;
 
+/**
+ * Holds the loaded tree types along with a table of which of them each block state is a log or leaves of.
+ * <p>
+ * The table is indexed by block state raw id and holds a bit for every tree type, so telling whether a block belongs to a tree is an array read.
+ * It is rebuilt the first time it is needed after the tree types are reloaded, by which point the block tags used by the dynamic tree types are also up to date.
+ */
 public class TreeTypes {
-    private static Set<TreeType> entries = new HashSet<>();
+    /**
+     * The number of tree types that fit in the table. Any beyond this are matched against their block ids instead.
+     */
+    static final int MAX_INDEXED = 63;
+    private static final long DYNAMIC = 1L << MAX_INDEXED;
+
+    private static List<TreeTypeImpl> entries = List.of();
+
+    @Nullable
+    private static volatile StateTable table;
 
     private static final TreeType any1x = createDynamic(false);
     private static final TreeType any2x = createDynamic(true);
 
     public static void load(Map<Identifier, TreeTypeLoader.TreeTypeDef> types) {
-        entries = types.entrySet().stream().map(e -> e.getValue().toTreeType(e.getKey())).collect(Collectors.toSet());
+        List<TreeTypeImpl> entries = new ArrayList<>();
+        types.keySet().stream().sorted().forEach(id -> entries.add(types.get(id).toTreeType(id, entries.size())));
+        TreeTypes.entries = entries;
+        table = null;
     }
 
     static TreeType get(BlockState state, BlockPos pos, World world) {
-        return entries.stream()
-                .filter(type -> type.matches(state))
-                .findFirst()
-                .map(type -> TreeType.of(type, type.findLeavesType(world, pos)))
-                .orElseGet(() -> {
-                    if (any1x.matches(state)) {
-                        if (PosHelper.any(pos, p -> world.getBlockState(p).isOf(state.getBlock()), PosHelper.HORIZONTAL)) {
-                            return any2x;
-                        }
-
-                        return any1x;
-                    }
+        TreeType type = get(state);
+        if (type != TreeType.NONE) {
+            return TreeType.of(type, type.findLeavesType(world, pos));
+        }
+
+        if (any1x.matches(state)) {
+            if (PosHelper.any(pos, p -> world.getBlockState(p).isOf(state.getBlock()), PosHelper.HORIZONTAL)) {
+                return any2x;
+            }
+
+            return any1x;
+        }
 
-                    return TreeType.NONE;
-                });
+        return TreeType.NONE;
     }
 
     static TreeType get(BlockState state) {
-        return entries.stream()
-                .filter(type -> type.matches(state))
-                .findFirst()
-                .orElse(TreeType.NONE);
+        StateTable table = getTable();
+        int id = Block.getRawIdFromState(state);
+        long matches = (table.get(table.logs, id) | table.get(table.leaves, id)) & ~DYNAMIC;
+        if (matches != 0) {
+            return entries.get(Long.numberOfTrailingZeros(matches));
+        }
+        for (int i = MAX_INDEXED; i < entries.size(); i++) {
+            if (entries.get(i).matches(state)) {
+                return entries.get(i);
+            }
+        }
+        return TreeType.NONE;
+    }
+
+    static boolean isLog(int index, BlockState state) {
+        StateTable table = getTable();
+        return (table.get(table.logs, Block.getRawIdFromState(state)) & (1L << index)) != 0;
+    }
+
+    static boolean isLeaves(int index, BlockState state) {
+        StateTable table = getTable();
+        return (table.get(table.leaves, Block.getRawIdFromState(state)) & (1L << index)) != 0;
+    }
+
+    private static boolean isAnyLog(BlockState state) {
+        StateTable table = getTable();
+        return table.get(table.logs, Block.getRawIdFromState(state)) != 0
+                || (entries.size() > MAX_INDEXED && entries.stream().skip(MAX_INDEXED).anyMatch(t -> t.isLog(state)));
+    }
+
+    private static boolean isAnyLeaves(BlockState state) {
+        StateTable table = getTable();
+        return table.get(table.leaves, Block.getRawIdFromState(state)) != 0
+                || (entries.size() > MAX_INDEXED && entries.stream().skip(MAX_INDEXED).anyMatch(t -> t.isLeaves(state)));
+    }
+
+    private static StateTable getTable() {
+        StateTable table = TreeTypes.table;
+        if (table == null) {
+            table = StateTable.bake(entries);
+            TreeTypes.table = table;
+        }
+        return table;
     }
 
     private static TreeType createDynamic(boolean wide) {
         return new TreeType() {
             @Override
             public boolean isLeaves(BlockState state) {
-                return (state.isIn(BlockTags.LEAVES) || state.getBlock() instanceof LeavesBlock || entries.stream().anyMatch(t -> t.isLeaves(state))) && TreeTypeImpl.isNonPersistent(state);
+                return isAnyLeaves(state);
             }
 
             @Override
             public boolean isLog(BlockState state) {
-                return state.isIn(BlockTags.LOGS_THAT_BURN) || entries.stream().anyMatch(t -> t.isLog(state));
+                return isAnyLog(state);
             }
 
             @Override
@@ -77,4 +137,41 @@ public class TreeTypes {
             }
         };
     }
+
+    private record StateTable(long[] logs, long[] leaves) {
+        static StateTable bake(List<TreeTypeImpl> entries) {
+            int size = Block.STATE_IDS.size();
+            long[] logs = new long[size];
+            long[] leaves = new long[size];
+
+            for (BlockState state : Block.STATE_IDS) {
+                int id = Block.STATE_IDS.getRawId(state);
+                Identifier blockId = Registries.BLOCK.getId(state.getBlock());
+                boolean nonPersistent = TreeTypeImpl.isNonPersistent(state);
+
+                for (int i = 0; i < entries.size() && i < MAX_INDEXED; i++) {
+                    TreeTypeImpl type = entries.get(i);
+                    if (type.logs().contains(blockId)) {
+                        logs[id] |= 1L << i;
+                    }
+                    if (nonPersistent && type.leaves().contains(blockId)) {
+                        leaves[id] |= 1L << i;
+                    }
+                }
+
+                if (state.isIn(BlockTags.LOGS_THAT_BURN)) {
+                    logs[id] |= DYNAMIC;
+                }
+                if (nonPersistent && (state.isIn(BlockTags.LEAVES) || state.getBlock() instanceof LeavesBlock)) {
+                    leaves[id] |= DYNAMIC;
+                }
+            }
+
+            return new StateTable(logs, leaves);
+        }
+
+        long get(long[] values, int id) {
+            return id >= 0 && id < values.length ? values[id] : 0;
+        }
+    }
 }
@@ -12,6 +12,8 @@ import com.minelittlepony.unicopia.entity.*;
 import com.minelittlepony.unicopia.entity.damage.UDamageSources;
 import com.minelittlepony.unicopia.particle.ParticleSource;
 import com.minelittlepony.unicopia.server.world.ModificationType;
+import com.minelittlepony.unicopia.server.world.ProtectionRegions;
+import com.minelittlepony.unicopia.server.world.SpellIndex;
 import com.minelittlepony.unicopia.util.SoundEmitter;
 import com.minelittlepony.unicopia.util.VecHelper;
 
@@ -79,7 +81,18 @@ public interface Caster<E extends Entity> extends
     }
 
     default Stream<Caster<?>> findAllSpellsInRange(double radius) {
-        return findAllSpellsInRange(radius, null);
+        return findAllSpellsInRange(radius, (Predicate<Entity>)null);
+    }
+
+    /**
+     * Finds all casters within range that are holding a spell of the given type.
+     * On the server this is answered from the world's {@link SpellIndex} rather than by scanning for entities.
+     */
+    default Stream<Caster<?>> findAllSpellsInRange(double radius, SpellType<?> type) {
+        if (isClient()) {
+            return findAllSpellsInRange(radius, type::isOn);
+        }
+        return SpellIndex.get(asWorld()).findAllCastersInRange(asEntity(), getOriginVector(), radius, type).stream();
     }
 
     default Stream<Caster<?>> findAllSpellsInRange(double radius, @Nullable Predicate<Entity> test) {
@@ -99,7 +112,10 @@ public interface Caster<E extends Entity> extends
     }
 
     default boolean canCastAt(Vec3d pos) {
-        return findAllSpellsInRange(500, SpellType.ARCANE_PROTECTION::isOn).noneMatch(caster -> caster
+        if (!isClient()) {
+            return !ProtectionRegions.get(asWorld()).blocksMagicFor(this, pos);
+        }
+        return findAllSpellsInRange(500, SpellType.ARCANE_PROTECTION).noneMatch(caster -> caster
                 .getSpellSlot().get(SpellType.ARCANE_PROTECTION, false)
                 .filter(spell -> spell.blocksMagicFor(caster, this, pos))
                 .isPresent()
@@ -82,6 +82,12 @@ public abstract class AbstractDelegatingSpell implements Spell,
         isDirty = true;
     }
 
+    @Override
+    public void markClean() {
+        isDirty = false;
+        getDelegates().forEach(Spell::markClean);
+    }
+
     @Override
     public void onDestroyed(Caster<?> caster) {
         getDelegates().forEach(a -> a.onDestroyed(caster));
@@ -9,6 +9,7 @@ import com.minelittlepony.unicopia.entity.behaviour.Disguise;
 import com.minelittlepony.unicopia.entity.behaviour.EntityAppearance;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.projectile.ProjectileImpactListener;
+import com.minelittlepony.unicopia.server.world.CollidableIndex;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
@@ -48,7 +49,13 @@ public abstract class AbstractDisguiseSpell extends AbstractSpell implements Dis
 
     @Override
     public boolean tick(Caster<?> source, Situation situation) {
-        return situation == Situation.BODY && update(source, true);
+        if (situation != Situation.BODY) {
+            return false;
+        }
+        if (disguise.getAppearance() != null) {
+            CollidableIndex.get(source.asWorld()).put(source.asEntity());
+        }
+        return update(source, true);
     }
 
     @Override
@@ -15,6 +15,7 @@ import com.minelittlepony.unicopia.particle.ParticleHandle;
 import com.minelittlepony.unicopia.particle.UParticles;
 import com.minelittlepony.unicopia.particle.ParticleHandle.Attachment;
 import com.minelittlepony.unicopia.server.world.Ether;
+import com.minelittlepony.unicopia.server.world.SpellIndex;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 
 import net.minecraft.nbt.*;
@@ -156,6 +157,7 @@ public class PlaceableSpell extends AbstractDelegatingSpell implements OrientedS
         getWorld(source).ifPresent(world -> {
             castEntity.ifPresent(world, entity -> {
                 entity.updatePositionAndAngles(position.x, position.y, position.z, entity.getYaw(), entity.getPitch());
+                SpellIndex.get(world).refresh(entity);
             });
         });
         getDelegates(spell -> spell instanceof PlaceableSpell o ? o : null)
@@ -178,6 +180,7 @@ public class PlaceableSpell extends AbstractDelegatingSpell implements OrientedS
 
             if (source.asEntity() instanceof CastSpellEntity spellcast) {
                 Ether.get(source.asWorld()).remove(getType(), source);
+                SpellIndex.get(source.asWorld()).remove(source);
             }
         }
         super.onDestroyed(source);
@@ -60,7 +60,7 @@ public class RainboomAbilitySpell extends AbstractSpell {
         source.findAllEntitiesInRange(RADIUS).forEach(e -> {
             e.damage(source.damageOf(UDamageTypes.RAINBOOM, source), 6);
         });
-        EFFECT_RANGE.translate(source.getOrigin()).getBlockPositions().forEach(pos -> {
+        EFFECT_RANGE.forEachBlock(Vec3d.of(source.getOrigin()), pos -> {
             BlockState state = source.asWorld().getBlockState(pos);
             if (state.isIn(UTags.FRAGILE) && source.canModifyAt(pos, ModificationType.PHYSICAL)) {
                 source.asWorld().breakBlock(pos, true);
@@ -94,6 +94,11 @@ public interface Spell extends NbtSerialisable, Affine {
      */
     void setDirty();
 
+    /**
+     * Clears this effect's dirty flag once its changes have been sent to the client.
+     */
+    void markClean();
+
     /**
      * Called when a gem is destroyed.
      */
@@ -62,6 +62,11 @@ public abstract class AbstractSpell implements Spell {
         isDirty = true;
     }
 
+    @Override
+    public void markClean() {
+        isDirty = false;
+    }
+
     @Override
     public Affinity getAffinity() {
         return getType().getAffinity();
@@ -159,7 +159,7 @@ public class DarkVortexSpell extends AttractiveSpell implements ProjectileDelega
 
             if (radius > 2) {
                 Vec3d origin = getOrigin(source);
-                new Sphere(false, radius).translate(origin).getBlockPositions().forEach(i -> {
+                new Sphere(false, radius).forEachBlock(origin, i -> {
                     if (!canAffect(source, i)) {
                         return;
                     }
@@ -67,10 +67,12 @@ public class FireSpell extends AbstractAreaEffectSpell implements ProjectileDele
             generateParticles(source);
         }
 
-        return new Sphere(false, Math.max(0, 4 + getTraits().get(Trait.POWER))).translate(source.getOrigin()).getBlockPositions().reduce(false,
-                (r, i) -> source.canModifyAt(i) && applyBlocks(source.asWorld(), i),
-                (a, b) -> a || b)
-                || applyEntities(source, source.getOriginVector());
+        boolean[] result = new boolean[1];
+        new Sphere(false, Math.max(0, 4 + getTraits().get(Trait.POWER))).forEachBlock(Vec3d.of(source.getOrigin()), i -> {
+            result[0] = source.canModifyAt(i) && applyBlocks(source.asWorld(), i);
+        });
+
+        return result[0] || applyEntities(source, source.getOriginVector());
     }
 
     protected void generateParticles(Caster<?> source) {
@@ -1,26 +1,32 @@
 package com.minelittlepony.unicopia.ability.magic.spell.effect;
 
-import java.util.HashSet;
-import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.ability.magic.Caster;
-import com.minelittlepony.unicopia.ability.magic.CasterView;
 import com.minelittlepony.unicopia.ability.magic.spell.Situation;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.particle.UParticles;
+import com.minelittlepony.unicopia.server.world.HydrophobicRegions;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 import com.minelittlepony.unicopia.util.shape.*;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.*;
 import net.minecraft.fluid.*;
 import net.minecraft.nbt.*;
 import net.minecraft.state.property.Properties;
 import net.minecraft.registry.tag.TagKey;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
 
 public class HydrophobicSpell extends AbstractSpell {
@@ -31,7 +37,17 @@ public class HydrophobicSpell extends AbstractSpell {
 
     private final TagKey<Fluid> affectedFluid;
 
-    private final Set<Entry> storedFluidPositions = new HashSet<>();
+    /**
+     * The original states of every position this spell has cleared, keyed by packed block position.
+     */
+    private final Long2ObjectMap<BlockState> storedFluidPositions = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * The sphere processed on the previous tick. Only positions that entered or left it need to be visited again.
+     */
+    @Nullable
+    private Vec3d lastCenter;
+    private double lastRange;
 
     protected HydrophobicSpell(CustomisedSpellType<?> type, TagKey<Fluid> affectedFluid) {
         super(type);
@@ -51,39 +67,40 @@ public class HydrophobicSpell extends AbstractSpell {
 
         if (!source.isClient()) {
             World world = source.asWorld();
+            double range = getRange(source);
+            Vec3d center = source.getOriginVector();
 
-            Shape area = new Sphere(false, getRange(source)).translate(source.getOriginVector());
-
-            storedFluidPositions.removeIf(entry -> {
-               if (!area.isPointInside(Vec3d.ofCenter(entry.pos()))) {
-                   entry.restore(world);
-                   return true;
-               }
-
-               return false;
-            });
-
-            area.getBlockPositions().forEach(pos -> {
-                pos = new BlockPos(pos);
-                BlockState state = world.getBlockState(pos);
+            HydrophobicRegions regions = HydrophobicRegions.get(world);
+            regions.put(getUuid(), source.getOrigin(), range + 1, affectedFluid);
+            LongSet updatedSections = regions.takeUpdatedSections(getUuid());
 
-                if (state.getFluidState().isIn(affectedFluid)) {
-                    Block block = state.getBlock();
+            BlockPos.Mutable mutable = new BlockPos.Mutable();
 
-                    if (block instanceof FluidBlock) {
-                        world.setBlockState(pos, Blocks.AIR.getDefaultState(), Block.NOTIFY_LISTENERS);
-                        storedFluidPositions.add(new Entry(pos, state));
-                    } else if (state.contains(Properties.WATERLOGGED)) {
-                        world.setBlockState(pos, state.cycle(Properties.WATERLOGGED), Block.NOTIFY_LISTENERS);
-                        storedFluidPositions.add(new Entry(pos, state));
-                    }
+            regions.runUntracked(() -> {
+                if (lastCenter == null) {
+                    storedFluidPositions.long2ObjectEntrySet().removeIf(entry -> {
+                        mutable.set(entry.getLongKey());
+                        if (!isInside(center, range, mutable)) {
+                            restore(world, mutable, entry.getValue());
+                            return true;
+                        }
+                        return false;
+                    });
+                    updateShell(world, center, -1, center, range, mutable);
+                } else if (!center.equals(lastCenter) || range != lastRange) {
+                    updateShell(world, lastCenter, lastRange, center, range, mutable);
                 }
+
+                updatedSections.forEach((long section) -> updateSection(world, section, center, range, mutable));
             });
 
+            lastCenter = center;
+            lastRange = range;
+
             if (!source.subtractEnergyCost(storedFluidPositions.isEmpty() ? 0.001F : 0.02F)) {
                 setDead();
             }
-            source.spawnParticles(new Sphere(true, getRange(source)), 10, pos -> {
+            source.spawnParticles(new Sphere(true, range), 10, pos -> {
                 BlockPos bp = BlockPos.ofFloored(pos);
                 if (source.asWorld().getFluidState(bp.up()).isIn(affectedFluid)) {
                     source.addParticle(UParticles.RAIN_DROPS, pos, Vec3d.ZERO);
@@ -98,25 +115,132 @@ public class HydrophobicSpell extends AbstractSpell {
         return !isDead();
     }
 
+    /**
+     * Visits only the positions that differ between the previous and current spheres,
+     * restoring fluids that are no longer covered and clearing ones that have just become covered.
+     */
+    private void updateShell(World world, Vec3d oldCenter, double oldRange, Vec3d newCenter, double newRange, BlockPos.Mutable mutable) {
+        int minX = MathHelper.floor(Math.min(oldCenter.x - oldRange, newCenter.x - newRange));
+        int minZ = MathHelper.floor(Math.min(oldCenter.z - oldRange, newCenter.z - newRange));
+        int maxX = MathHelper.floor(Math.max(oldCenter.x + oldRange, newCenter.x + newRange));
+        int maxZ = MathHelper.floor(Math.max(oldCenter.z + oldRange, newCenter.z + newRange));
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                double oldHeight = getHalfHeight(oldCenter, oldRange, x, z);
+                double newHeight = getHalfHeight(newCenter, newRange, x, z);
+                int oldMin = oldHeight < 0 ? Integer.MAX_VALUE : MathHelper.ceil(oldCenter.y - oldHeight - 0.5);
+                int oldMax = oldHeight < 0 ? Integer.MIN_VALUE : MathHelper.floor(oldCenter.y + oldHeight - 0.5);
+                int newMin = newHeight < 0 ? Integer.MAX_VALUE : MathHelper.ceil(newCenter.y - newHeight - 0.5);
+                int newMax = newHeight < 0 ? Integer.MIN_VALUE : MathHelper.floor(newCenter.y + newHeight - 0.5);
+
+                for (int y = oldMin; y <= oldMax; y++) {
+                    if (y < newMin || y > newMax) {
+                        BlockState stored = storedFluidPositions.remove(BlockPos.asLong(x, y, z));
+                        if (stored != null) {
+                            restore(world, mutable.set(x, y, z), stored);
+                        }
+                    } else {
+                        y = Math.max(y, newMax);
+                    }
+                }
+
+                for (int y = newMin; y <= newMax; y++) {
+                    if (y < oldMin || y > oldMax) {
+                        absorbFluid(world, mutable.set(x, y, z));
+                    } else {
+                        y = Math.max(y, oldMax);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-checks the part of the sphere that falls within a chunk section that has had fluid placed in it.
+     */
+    private void updateSection(World world, long section, Vec3d center, double range, BlockPos.Mutable mutable) {
+        int minX = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(section));
+        int minY = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(section));
+        int minZ = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(section));
+
+        for (int x = minX; x < minX + 16; x++) {
+            for (int z = minZ; z < minZ + 16; z++) {
+                double height = getHalfHeight(center, range, x, z);
+                if (height < 0) {
+                    continue;
+                }
+                int maxY = Math.min(minY + 15, MathHelper.floor(center.y + height - 0.5));
+                for (int y = Math.max(minY, MathHelper.ceil(center.y - height - 0.5)); y <= maxY; y++) {
+                    absorbFluid(world, mutable.set(x, y, z));
+                }
+            }
+        }
+    }
+
+    private void absorbFluid(World world, BlockPos.Mutable pos) {
+        BlockState state = world.getBlockState(pos);
+
+        if (state.getFluidState().isIn(affectedFluid)) {
+            Block block = state.getBlock();
+
+            if (block instanceof FluidBlock) {
+                world.setBlockState(pos, Blocks.AIR.getDefaultState(), Block.NOTIFY_LISTENERS);
+                storedFluidPositions.put(pos.asLong(), state);
+            } else if (state.contains(Properties.WATERLOGGED)) {
+                world.setBlockState(pos, state.cycle(Properties.WATERLOGGED), Block.NOTIFY_LISTENERS);
+                storedFluidPositions.put(pos.asLong(), state);
+            }
+        }
+    }
+
+    /**
+     * Gets half the vertical extent of the sphere through the centre of the given block column,
+     * or a negative number if the column lies outside of it.
+     */
+    private static double getHalfHeight(Vec3d center, double range, int x, int z) {
+        if (range < 0) {
+            return -1;
+        }
+        double dx = x + 0.5 - center.x;
+        double dz = z + 0.5 - center.z;
+        double h = range * range - dx * dx - dz * dz;
+        return h < 0 ? -1 : Math.sqrt(h);
+    }
+
+    private static boolean isInside(Vec3d center, double range, BlockPos pos) {
+        return center.squaredDistanceTo(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5) <= range * range;
+    }
+
     @Override
     public void onDestroyed(Caster<?> caster) {
-        storedFluidPositions.removeIf(entry -> {
-            entry.restore(caster.asWorld());
-            return true;
-         });
+        if (!caster.isClient()) {
+            HydrophobicRegions.get(caster.asWorld()).remove(getUuid());
+        }
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        storedFluidPositions.long2ObjectEntrySet().forEach(entry -> {
+            restore(caster.asWorld(), mutable.set(entry.getLongKey()), entry.getValue());
+        });
+        storedFluidPositions.clear();
+        lastCenter = null;
     }
 
     @Override
     public void toNBT(NbtCompound compound) {
         super.toNBT(compound);
-        compound.put("storedFluidPositions", Entry.SERIALIZER.writeAll(storedFluidPositions));
+        compound.put("storedFluidPositions", Entry.SERIALIZER.writeAll(storedFluidPositions.long2ObjectEntrySet().stream()
+                .map(entry -> new Entry(BlockPos.fromLong(entry.getLongKey()), entry.getValue()))
+                .toList()));
     }
 
     @Override
     public void fromNBT(NbtCompound compound) {
         super.fromNBT(compound);
         storedFluidPositions.clear();
-        storedFluidPositions.addAll(Entry.SERIALIZER.readAll(compound.getList("storedFluidPositions", NbtElement.COMPOUND_TYPE)).toList());
+        Entry.SERIALIZER.readAll(compound.getList("storedFluidPositions", NbtElement.COMPOUND_TYPE)).forEach(entry -> {
+            storedFluidPositions.put(entry.pos().asLong(), entry.blockState());
+        });
+        lastCenter = null;
     }
     /**
      * Calculates the maximum radius of the shield. aka The area of effect.
@@ -139,19 +263,19 @@ public class HydrophobicSpell extends AbstractSpell {
             compound.put("blockState", NbtSerialisable.encode(BlockState.CODEC, entry.blockState));
             return compound;
         });
+    }
 
-        void restore(World world) {
-            BlockState state = world.getBlockState(pos);
+    private static void restore(World world, BlockPos pos, BlockState blockState) {
+        BlockState state = world.getBlockState(pos);
 
-            if (state.isAir()) {
-                if (blockState.contains(Properties.WATERLOGGED)) {
-                    world.setBlockState(pos, blockState.getFluidState().getBlockState(), Block.NOTIFY_LISTENERS);
-                } else {
-                    world.setBlockState(pos, blockState, Block.NOTIFY_LISTENERS);
-                }
-            } else if (state.contains(Properties.WATERLOGGED)) {
-                world.setBlockState(pos, state.with(Properties.WATERLOGGED, true), Block.NOTIFY_LISTENERS);
+        if (state.isAir()) {
+            if (blockState.contains(Properties.WATERLOGGED)) {
+                world.setBlockState(pos, blockState.getFluidState().getBlockState(), Block.NOTIFY_LISTENERS);
+            } else {
+                world.setBlockState(pos, blockState, Block.NOTIFY_LISTENERS);
             }
+        } else if (state.contains(Properties.WATERLOGGED)) {
+            world.setBlockState(pos, state.with(Properties.WATERLOGGED, true), Block.NOTIFY_LISTENERS);
         }
     }
 
@@ -159,9 +283,7 @@ public class HydrophobicSpell extends AbstractSpell {
         return fluid.isIn(affectedFluid) && pos.isWithinDistance(caster.getOrigin(), getRange(caster) + 1);
     }
 
-    public static boolean blocksFluidFlow(CasterView world, BlockPos pos, FluidState state) {
-        return world.findAllSpellsInRange(pos, 500, SpellType.HYDROPHOBIC).anyMatch(pair -> {
-            return pair.getValue().blocksFlow(pair.getKey(), pos, state);
-        });
+    public static boolean blocksFluidFlow(BlockView world, BlockPos pos, FluidState state) {
+        return world instanceof ServerWorld serverWorld && HydrophobicRegions.get(serverWorld).blocksFlow(pos, state);
     }
 }
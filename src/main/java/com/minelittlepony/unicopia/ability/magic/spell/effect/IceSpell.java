@@ -44,7 +44,8 @@ public class IceSpell extends AbstractSpell {
     public boolean tick(Caster<?> source, Situation situation) {
         boolean submerged = source.asEntity().isSubmergedInWater() || source.asEntity().isSubmergedIn(FluidTags.LAVA);
 
-        long blocksAffected = OUTER_RANGE.translate(source.getOrigin()).getBlockPositions().filter(i -> {
+        int[] blocksAffected = new int[1];
+        OUTER_RANGE.forEachBlock(Vec3d.of(source.getOrigin()), i -> {
             if (source.canModifyAt(i) && applyBlockSingle(source.asEntity(), source.asWorld(), i, situation)) {
 
                 if (submerged & source.getOrigin().isWithinDistance(i, RADIUS - 1)) {
@@ -61,13 +62,11 @@ public class IceSpell extends AbstractSpell {
                         i.getY() + 1,
                         i.getZ() + source.asWorld().random.nextFloat()), Vec3d.ZERO);
 
-                return true;
+                blocksAffected[0]++;
             }
+        });
 
-            return false;
-        }).count();
-
-        if (!source.subtractEnergyCost(Math.min(10, blocksAffected / 30))) {
+        if (!source.subtractEnergyCost(Math.min(10, blocksAffected[0] / 30))) {
             setDead();
         }
 
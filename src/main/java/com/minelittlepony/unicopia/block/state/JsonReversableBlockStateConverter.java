@@ -8,17 +8,29 @@ import org.jetbrains.annotations.Nullable;
 
 import com.google.gson.*;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.world.World;
 
+/**
+ * A block state converter made up of entries loaded from a state map.
+ * <p>
+ * The first time it's used the converter works out which entry applies to every block state and keeps the answers in a table indexed by raw state id,
+ * so converting a block afterwards only has to look up its entry rather than testing each one in turn.
+ * This is done on first use rather than when loading since tags aren't bound until after the state maps are loaded.
+ */
 public class JsonReversableBlockStateConverter implements ReversableBlockStateConverter {
+    private static final short NO_MATCH = -1;
 
     private final List<BlockStateConverter> entries;
 
     @Nullable
     private ReversableBlockStateConverter inverse;
 
+    @Nullable
+    private volatile short[] matches;
+
     public JsonReversableBlockStateConverter(JsonElement json) {
         this(new ArrayList<>(), null);
         json.getAsJsonArray().forEach(entry -> {
@@ -33,15 +45,43 @@ public class JsonReversableBlockStateConverter implements ReversableBlockStateCo
 
     @Override
     public boolean canConvert(@Nullable BlockState state) {
-        return entries.stream().anyMatch(entry -> entry.canConvert(state));
+        return getMatch(state) != NO_MATCH;
     }
 
     @Override
     public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
-        return entries.stream().filter(entry -> entry.canConvert(state))
-                .findFirst()
-                .map(entry -> entry.getConverted(world, state))
-                .orElse(state);
+        int match = getMatch(state);
+        return match == NO_MATCH ? state : entries.get(match).getConverted(world, state);
+    }
+
+    private int getMatch(@Nullable BlockState state) {
+        if (state == null) {
+            return NO_MATCH;
+        }
+        short[] matches = getMatches();
+        int id = Block.getRawIdFromState(state);
+        return id >= 0 && id < matches.length ? matches[id] : findMatch(state);
+    }
+
+    private short[] getMatches() {
+        short[] matches = this.matches;
+        if (matches == null) {
+            matches = new short[Block.STATE_IDS.size()];
+            for (BlockState state : Block.STATE_IDS) {
+                matches[Block.STATE_IDS.getRawId(state)] = (short)findMatch(state);
+            }
+            this.matches = matches;
+        }
+        return matches;
+    }
+
+    private int findMatch(BlockState state) {
+        for (int i = 0; i < entries.size() && i < Short.MAX_VALUE; i++) {
+            if (entries.get(i).canConvert(state)) {
+                return i;
+            }
+        }
+        return NO_MATCH;
     }
 
     @Override
@@ -91,38 +91,68 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
         ));
     }
 
+    /**
+     * Refers to a state map by id, looking it up again whenever the state maps are reloaded.
+     */
     static class Indirect<T extends BlockStateConverter> implements ReversableBlockStateConverter {
         private final Identifier id;
         private final BlockStateConverter inverse;
 
+        private volatile Resolution<T> resolution = new Resolution<>(null, null);
+
         public Indirect(Identifier id, Optional<BlockStateConverter> inverse) {
             this.id = id;
-            this.inverse = inverse.orElseGet(() -> new StateMapLoader.Indirect<>(id, Optional.of(this)) {
+            this.inverse = inverse.orElseGet(() -> new StateMapLoader.Indirect<BlockStateConverter>(id, Optional.of(this)) {
                 @Override
-                public Optional<BlockStateConverter> get() {
-                    return Optional.ofNullable(INSTANCE.converters.get(id)).map(map -> map.getInverse());
+                @Nullable
+                protected BlockStateConverter lookup(Map<Identifier, ReversableBlockStateConverter> converters) {
+                    ReversableBlockStateConverter map = converters.get(id);
+                    return map == null ? null : map.getInverse();
                 }
             });
         }
 
         @Override
         public boolean canConvert(@Nullable BlockState state) {
-            return get().filter(map -> map.canConvert(state)).isPresent();
+            T map = resolve();
+            return map != null && map.canConvert(state);
         }
 
         @Override
         public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
-            return get().map(map -> map.getConverted(world, state)).orElse(state);
+            T map = resolve();
+            return map == null ? state : map.getConverted(world, state);
         }
 
-        @SuppressWarnings("unchecked")
         public Optional<T> get() {
-            return Optional.ofNullable((T)INSTANCE.converters.get(id));
+            return Optional.ofNullable(resolve());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Nullable
+        protected T lookup(Map<Identifier, ReversableBlockStateConverter> converters) {
+            return (T)converters.get(id);
+        }
+
+        @Nullable
+        private T resolve() {
+            Map<Identifier, ReversableBlockStateConverter> converters = INSTANCE.converters;
+            Resolution<T> resolution = this.resolution;
+            if (resolution.converters() != converters) {
+                resolution = new Resolution<>(converters, lookup(converters));
+                this.resolution = resolution;
+            }
+            return resolution.converter();
         }
 
         @Override
         public BlockStateConverter getInverse() {
             return inverse;
         }
+
+        private record Resolution<T> (
+                @Nullable Map<Identifier, ReversableBlockStateConverter> converters,
+                @Nullable T converter
+        ) {}
     }
 }
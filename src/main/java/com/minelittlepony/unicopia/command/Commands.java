@@ -31,6 +31,7 @@ public class Commands {
             CastCommand.register(dispatcher, registries);
             TraitCommand.register(dispatcher);
             ManaCommand.register(dispatcher);
+            StatsCommand.register(dispatcher);
         });
 
         if (FabricLoader.getInstance().getGameInstance() instanceof MinecraftServer server) {
@@ -49,7 +49,7 @@ class GravityCommand {
         Pony iplayer = Pony.of(player);
 
         iplayer.getPhysics().setBaseGravityModifier(gravity);
-        iplayer.setDirty();
+        iplayer.setDirty(Pony.Component.GRAVITY);
 
         sendFeedback(source, player, "set", true, gravity);
         return 0;
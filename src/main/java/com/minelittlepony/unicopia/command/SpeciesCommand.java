@@ -65,7 +65,7 @@ class SpeciesCommand {
         if (race.isPermitted(player)) {
             Pony pony = Pony.of(player);
             pony.setSpecies(race);
-            pony.setDirty();
+            pony.setDirty(Pony.Component.SPECIES);
 
             if (race.isUnset()) {
                 Channel.SERVER_SELECT_TRIBE.sendToPlayer(new MsgTribeSelect(Race.allPermitted(player), "gui.unicopia.tribe_selection.respawn"), (ServerPlayerEntity)player);
@@ -0,0 +1,55 @@
+package com.minelittlepony.unicopia.command;
+
+import com.minelittlepony.unicopia.entity.Living;
+import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.HydrophobicRegions;
+import com.minelittlepony.unicopia.server.world.WorldOverlay;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+class StatsCommand {
+    static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        LiteralArgumentBuilder<ServerCommandSource> builder = CommandManager
+                .literal("unicopia_stats")
+                .requires(s -> s.hasPermissionLevel(4));
+
+        builder.then(CommandManager.literal("fluids").executes(context -> fluids(context.getSource())));
+        builder.then(CommandManager.literal("destruction").executes(context -> destruction(context.getSource())));
+        builder.then(CommandManager.literal("casters").executes(context -> casters(context.getSource())));
+
+        dispatcher.register(builder);
+    }
+
+    static int fluids(ServerCommandSource source) {
+        HydrophobicRegions regions = HydrophobicRegions.get(source.getWorld());
+        source.sendFeedback(() -> Text.translatable("commands.unicopia_stats.fluids",
+                regions.getRegionCount(),
+                regions.getVetoedFlows(),
+                regions.getAllowedFlows()
+        ), false);
+        return 0;
+    }
+
+    static int destruction(ServerCommandSource source) {
+        WorldOverlay overlay = BlockDestructionManager.of(source.getWorld()).getOverlay();
+        source.sendFeedback(() -> Text.translatable("commands.unicopia_stats.destruction",
+                overlay.getStateCount(),
+                overlay.getChunkCount(),
+                overlay.getDirtyChunkCount()
+        ), false);
+        return 0;
+    }
+
+    static int casters(ServerCommandSource source) {
+        int[] counts = new int[2];
+        source.getWorld().iterateEntities().forEach(entity -> {
+            Living.getOrEmpty(entity).ifPresent(living -> counts[living.isDormant() ? 1 : 0]++);
+        });
+        source.sendFeedback(() -> Text.translatable("commands.unicopia_stats.casters", counts[0], counts[1]), false);
+        return 0;
+    }
+}
@@ -16,6 +16,7 @@ import net.minecraft.world.World;
 import java.util.function.Consumer;
 
 import com.minelittlepony.unicopia.entity.collision.EntityCollisions;
+import com.minelittlepony.unicopia.server.world.CollidableIndex;
 
 public class AirBalloonEntity extends FlyingEntity implements EntityCollisions.ComplexCollidable {
     private static final byte HAS_BALLOON = 1;
@@ -75,6 +76,7 @@ public class AirBalloonEntity extends FlyingEntity implements EntityCollisions.C
 
     @Override
     public void tick() {
+        CollidableIndex.get(getWorld()).put(this);
         prevVehicleVel = getVelocity();
         setAir(getMaxAir());
 
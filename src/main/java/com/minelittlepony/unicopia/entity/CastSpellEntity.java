@@ -21,11 +21,10 @@ import net.minecraft.world.World;
 
 public class CastSpellEntity extends LightEmittingEntity implements Caster<CastSpellEntity>, WeaklyOwned.Mutable<LivingEntity> {
     private static final TrackedData<Float> GRAVITY = DataTracker.registerData(CastSpellEntity.class, TrackedDataHandlerRegistry.FLOAT);
-    private static final TrackedData<NbtCompound> EFFECT = DataTracker.registerData(CastSpellEntity.class, TrackedDataHandlerRegistry.NBT_COMPOUND);
 
     private final EntityPhysics<CastSpellEntity> physics = new EntityPhysics<>(this, GRAVITY);
 
-    private final EffectSync effectDelegate = new EffectSync(this, EFFECT);
+    private final EffectSync effectDelegate = new EffectSync(this);
 
     private final EntityReference<LivingEntity> owner = new EntityReference<>();
 
@@ -38,7 +37,6 @@ public class CastSpellEntity extends LightEmittingEntity implements Caster<CastS
 
     @Override
     protected void initDataTracker() {
-        getDataTracker().startTracking(EFFECT, new NbtCompound());
     }
 
     @Override
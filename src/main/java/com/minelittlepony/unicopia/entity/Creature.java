@@ -16,7 +16,9 @@ import com.minelittlepony.unicopia.ability.magic.spell.effect.TargetSelecter;
 import com.minelittlepony.unicopia.entity.ai.BreakHeartGoal;
 import com.minelittlepony.unicopia.entity.ai.DynamicTargetGoal;
 import com.minelittlepony.unicopia.entity.ai.EatMuffinGoal;
+import com.minelittlepony.unicopia.entity.ai.FleeWearerGoal;
 import com.minelittlepony.unicopia.entity.ai.WantItTakeItGoal;
+import com.minelittlepony.unicopia.item.UItems;
 
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
@@ -35,7 +37,6 @@ import net.minecraft.nbt.NbtElement;
 import net.minecraft.util.math.MathHelper;
 
 public class Creature extends Living<LivingEntity> implements WeaklyOwned.Mutable<LivingEntity> {
-    private static final TrackedData<NbtCompound> EFFECT = DataTracker.registerData(LivingEntity.class, TrackedDataHandlerRegistry.NBT_COMPOUND);
     private static final TrackedData<NbtCompound> MASTER = DataTracker.registerData(LivingEntity.class, TrackedDataHandlerRegistry.NBT_COMPOUND);
     public static final TrackedData<Float> GRAVITY = DataTracker.registerData(LivingEntity.class, TrackedDataHandlerRegistry.FLOAT);
     private static final TrackedData<Integer> EATING = DataTracker.registerData(LivingEntity.class, TrackedDataHandlerRegistry.INTEGER);
@@ -64,7 +65,7 @@ public class Creature extends Living<LivingEntity> implements WeaklyOwned.Mutabl
     });
 
     public Creature(LivingEntity entity) {
-        super(entity, EFFECT);
+        super(entity);
         physics = new EntityPhysics<>(entity, GRAVITY);
         entity.getDataTracker().startTracking(MASTER, owner.toNBT());
         entity.getDataTracker().startTracking(EATING, 0);
@@ -145,10 +146,10 @@ public class Creature extends Living<LivingEntity> implements WeaklyOwned.Mutabl
         }
 
         if (entity instanceof CreeperEntity mob) {
-            goals.add(1, new FleeEntityGoal<>(mob, LivingEntity.class, 10, 1.5, 1.9, AmuletSelectors.ALICORN_AMULET));
+            goals.add(1, new FleeWearerGoal(mob, UItems.ALICORN_AMULET, 10, 1.5, 1.9, AmuletSelectors.ALICORN_AMULET));
         }
         if (entity instanceof PassiveEntity mob) {
-            goals.add(1, new FleeEntityGoal<>(mob, LivingEntity.class, 10, 1.1, 1.7, AmuletSelectors.ALICORN_AMULET_AFTER_1_DAYS));
+            goals.add(1, new FleeWearerGoal(mob, UItems.ALICORN_AMULET, 10, 1.1, 1.7, AmuletSelectors.ALICORN_AMULET_AFTER_1_DAYS));
         }
     }
 
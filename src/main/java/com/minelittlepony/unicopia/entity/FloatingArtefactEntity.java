@@ -3,6 +3,7 @@ package com.minelittlepony.unicopia.entity;
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.entity.damage.UDamageSources;
 import com.minelittlepony.unicopia.item.UItems;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -119,6 +120,7 @@ public class FloatingArtefactEntity extends Entity implements UDamageSources {
             if (spinupDuration <= 0) {
                 setSpin(1);
             }
+            TargetIndex.get(getWorld()).put(TargetIndex.Kind.ARTEFACT, this);
         }
 
         if (stack.getItem() instanceof Artifact) {
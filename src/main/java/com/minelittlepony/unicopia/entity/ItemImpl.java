@@ -4,6 +4,7 @@ import java.util.List;
 
 import com.minelittlepony.unicopia.*;
 import com.minelittlepony.unicopia.item.enchantment.UEnchantments;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 import com.minelittlepony.unicopia.util.VecHelper;
 
 import net.minecraft.enchantment.EnchantmentHelper;
@@ -49,6 +50,8 @@ public class ItemImpl implements Equine<ItemEntity> {
     @Override
     public boolean beforeUpdate() {
 
+        ItemStack stack = entity.getStack();
+
         if (!entity.getWorld().isClient) {
             Race race = getSpecies();
             if (race != serverRace) {
@@ -56,9 +59,11 @@ public class ItemImpl implements Equine<ItemEntity> {
                 setSpecies(Race.HUMAN);
                 setSpecies(race);
             }
-        }
 
-        ItemStack stack = entity.getStack();
+            if (stack.hasEnchantments() && EnchantmentHelper.getLevel(UEnchantments.WANT_IT_NEED_IT, stack) > 0) {
+                TargetIndex.get(entity.getWorld()).put(TargetIndex.Kind.WANT_IT_NEED_IT, entity);
+            }
+        }
         IItemEntity i = (IItemEntity)entity;
 
         if (!stack.isEmpty()) {
@@ -4,7 +4,10 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.minelittlepony.unicopia.entity.player.Pony;
+import com.minelittlepony.unicopia.server.world.WornItemIndex;
 import com.minelittlepony.unicopia.trinkets.TrinketsDelegate;
 import com.minelittlepony.unicopia.util.*;
 
@@ -14,6 +17,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.Identifier;
 import net.minecraft.registry.Registries;
+import net.minecraft.world.World;
 
 public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tickable, TrinketsDelegate.Inventory {
     public static final long TICKS = 1;
@@ -56,6 +60,12 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
 
     private final Living<?> living;
 
+    /**
+     * The world whose {@link WornItemIndex} last had this entity's items, or null if it is not up to date.
+     */
+    @Nullable
+    private World indexedWorld;
+
     public ItemTracker(Living<?> living) {
         this.living = living;
     }
@@ -75,7 +85,9 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
         final Set<ItemStack> foundStacks = new HashSet<>();
         stacks.forEach(stack -> {
             if (stack.getItem() instanceof Trackable trackable) {
-                items.compute(trackable, (item, prev) -> prev == null ? 1 : prev + 1);
+                if (items.compute(trackable, (item, prev) -> prev == null ? 1 : prev + 1) == 1) {
+                    indexedWorld = null;
+                }
                 found.add(trackable);
                 foundStacks.add(stack);
             }
@@ -83,11 +95,17 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
         items.entrySet().removeIf(e -> {
             if (!found.contains(e.getKey())) {
                 e.getKey().onUnequipped(living, e.getValue());
+                indexedWorld = null;
                 return true;
             }
             return false;
         });
 
+        if (indexedWorld != living.asWorld() && (!items.isEmpty() || indexedWorld == null)) {
+            indexedWorld = living.asWorld();
+            WornItemIndex.get(indexedWorld).update(living, items.keySet());
+        }
+
         if (!(living instanceof Pony)) {
             foundStacks.forEach(stack -> {
                 if (getTicks((Trackable)stack.getItem()) == 1) {
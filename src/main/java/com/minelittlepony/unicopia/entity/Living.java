@@ -57,6 +57,10 @@ import net.minecraft.util.math.Vec3d;
 
 public abstract class Living<T extends LivingEntity> implements Equine<T>, Caster<T>, Transmittable {
     private static final TrackedData<Optional<UUID>> CARRIER_ID = DataTracker.registerData(LivingEntity.class, TrackedDataHandlerRegistry.OPTIONAL_UUID);
+    /**
+     * How often, in ticks, entities check for dragon breath deliveries addressed to them.
+     */
+    private static final int DRAGON_BREATH_CHECK_INTERVAL = 10;
 
     protected final T entity;
 
@@ -83,15 +87,14 @@ public abstract class Living<T extends LivingEntity> implements Equine<T>, Caste
     private final Enchantments enchants = addTicker(new Enchantments(this));
     private final ItemTracker armour = addTicker(new ItemTracker(this));
 
-    protected Living(T entity, TrackedData<NbtCompound> effect) {
+    protected Living(T entity) {
         this.entity = entity;
-        this.effectDelegate = new EffectSync(this, effect);
+        this.effectDelegate = new EffectSync(this);
 
         this.sneakingHeuristic = addTicker(new Interactable(entity::isSneaking));
         this.landedHeuristic = addTicker(new Interactable(entity::isOnGround));
         this.jumpingHeuristic = addTicker(new Interactable(((LivingEntityDuck)entity)::isJumping));
 
-        entity.getDataTracker().startTracking(effect, new NbtCompound());
         entity.getDataTracker().startTracking(CARRIER_ID, Optional.empty());
     }
 
@@ -133,6 +136,13 @@ public abstract class Living<T extends LivingEntity> implements Equine<T>, Caste
         return effectDelegate;
     }
 
+    /**
+     * Checks whether this entity has never held a spell, or has nothing left to do for the ones it had.
+     */
+    public boolean isDormant() {
+        return effectDelegate.isDormant();
+    }
+
     public Enchantments getEnchants() {
         return enchants;
     }
@@ -176,10 +186,12 @@ public abstract class Living<T extends LivingEntity> implements Equine<T>, Caste
     public void tick() {
         tickers.forEach(Tickable::tick);
 
-        try {
-            getSpellSlot().forEach(spell -> Operation.ofBoolean(spell.tick(this, Situation.BODY)), entity.getWorld().isClient);
-        } catch (Exception e) {
-            Unicopia.LOGGER.error("Error whilst ticking spell on entity {}", entity, e);
+        if (!effectDelegate.isDormant()) {
+            try {
+                getSpellSlot().forEach(spell -> Operation.ofBoolean(spell.tick(this, Situation.BODY)), entity.getWorld().isClient);
+            } catch (Exception e) {
+                Unicopia.LOGGER.error("Error whilst ticking spell on entity {}", entity, e);
+            }
         }
 
         if (!(entity instanceof PlayerEntity)) {
@@ -256,13 +268,23 @@ public abstract class Living<T extends LivingEntity> implements Equine<T>, Caste
     }
 
     private void updateDragonBreath() {
-        if (!entity.getWorld().isClient && (entity instanceof PlayerEntity || entity.hasCustomName())) {
+        // deliveries are only checked for a few times a second, spread out so everyone doesn't check on the same tick
+        if (!entity.getWorld().isClient
+                && (entity.age + entity.getId()) % DRAGON_BREATH_CHECK_INTERVAL == 0
+                && (entity instanceof PlayerEntity || entity.hasCustomName())) {
+            DragonBreathStore store = DragonBreathStore.get(entity.getWorld());
+            if (!store.hasPayloads()) {
+                return;
+            }
+
+            String name = entity.getDisplayName().getString();
+            if (!store.hasPayloads(name)) {
+                return;
+            }
 
             Vec3d targetPos = entity.getRotationVector().multiply(2).add(entity.getEyePos());
 
             if (entity.getWorld().isAir(BlockPos.ofFloored(targetPos))) {
-                DragonBreathStore store = DragonBreathStore.get(entity.getWorld());
-                String name = entity.getDisplayName().getString();
                 store.popEntries(name).forEach(stack -> {
                     Vec3d randomPos = targetPos.add(VecHelper.supply(() -> entity.getRandom().nextTriangular(0.1, 0.5)));
 
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.minelittlepony.unicopia.UTags;
 import com.minelittlepony.unicopia.ability.magic.Caster;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.block.ButtonBlock;
@@ -86,6 +87,9 @@ public class PhysicsBodyProjectileEntity extends PersistentProjectileEntity impl
     @Override
     public void tick() {
         super.tick();
+        if (!getWorld().isClient) {
+            TargetIndex.get(getWorld()).put(TargetIndex.Kind.THROWN_ITEM, this);
+        }
         if (inGround) {
             Vec3d vel = getVelocity();
             vel = vel.multiply(0, 1, 0);
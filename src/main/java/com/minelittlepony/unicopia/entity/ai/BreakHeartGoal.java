@@ -6,6 +6,7 @@ import java.util.function.Supplier;
 
 import com.minelittlepony.unicopia.entity.FloatingArtefactEntity;
 import com.minelittlepony.unicopia.item.UItems;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.ai.goal.Goal;
@@ -24,7 +25,14 @@ public class BreakHeartGoal extends Goal {
         this.targetter = targetter;
         this.setControls(EnumSet.of(Goal.Control.MOVE, Goal.Control.LOOK, Goal.Control.JUMP));
 
-        target = targetter.addPredicate(this::canTarget);
+        target = targetter.addPredicate(getTargetKind(), this::canTarget);
+    }
+
+    /**
+     * The kind of entity this goal looks for. Called from the constructor, so must not depend on any fields.
+     */
+    protected TargetIndex.Kind getTargetKind() {
+        return TargetIndex.Kind.ARTEFACT;
     }
 
     protected boolean canTarget(Entity e) {
@@ -1,13 +1,14 @@
 package com.minelittlepony.unicopia.entity.ai;
 
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.jetbrains.annotations.Nullable;
 
-import com.minelittlepony.unicopia.util.VecHelper;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -15,10 +16,19 @@ import net.minecraft.entity.ai.TargetPredicate;
 import net.minecraft.entity.ai.goal.Goal;
 import net.minecraft.entity.mob.MobEntity;
 
+/**
+ * Picks the closest entity matching any of the predicates registered by the goals sharing it.
+ * <p>
+ * Candidates are looked up in the world's {@link TargetIndex} by the kinds of entities each goal is interested in,
+ * so the search is skipped entirely when there are none anywhere in the world.
+ */
 public class DynamicTargetGoal extends Goal {
+    private static final double RANGE = 26;
 
     private final MobEntity mob;
 
+    private final Set<TargetIndex.Kind> kinds = EnumSet.noneOf(TargetIndex.Kind.class);
+
     private int interval;
 
     private Optional<Entity> target = Optional.empty();
@@ -30,8 +40,9 @@ public class DynamicTargetGoal extends Goal {
         this.mob = mob;
     }
 
-    public Supplier<Optional<Entity>> addPredicate(Predicate<Entity> predicate) {
+    public Supplier<Optional<Entity>> addPredicate(TargetIndex.Kind kind, Predicate<Entity> predicate) {
         test = test == null ? predicate : predicate.or(test);
+        kinds.add(kind);
 
         return () -> target.filter(Entity::isAlive).filter(predicate);
     }
@@ -52,10 +63,13 @@ public class DynamicTargetGoal extends Goal {
                 mob.setTarget(null);
             }
 
-            target = VecHelper.findInRange(mob, mob.getWorld(), mob.getPos(), 26, test)
-                .stream()
-                .sorted(Comparator.comparing(e -> mob.distanceTo(e)))
-                .findFirst();
+            target = Optional.empty();
+            if (!kinds.isEmpty()) {
+                TargetIndex index = TargetIndex.get(mob.getWorld());
+                if (!index.isEmpty(kinds)) {
+                    target = index.findNearest(mob, RANGE, kinds, test);
+                }
+            }
 
             if (target.isPresent()) {
                 if (target.get() instanceof LivingEntity) {
@@ -2,6 +2,7 @@ package com.minelittlepony.unicopia.entity.ai;
 
 import com.minelittlepony.unicopia.entity.PhysicsBodyProjectileEntity;
 import com.minelittlepony.unicopia.item.UItems;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.mob.MobEntity;
@@ -41,6 +42,11 @@ public class EatMuffinGoal extends BreakHeartGoal {
         return timer > 0 && super.shouldContinue();
     }
 
+    @Override
+    protected TargetIndex.Kind getTargetKind() {
+        return TargetIndex.Kind.THROWN_ITEM;
+    }
+
     @Override
     protected boolean canTarget(Entity e) {
         return !e.isRemoved()
@@ -0,0 +1,31 @@
+package com.minelittlepony.unicopia.entity.ai;
+
+import java.util.function.Predicate;
+
+import com.minelittlepony.unicopia.entity.ItemTracker;
+import com.minelittlepony.unicopia.server.world.WornItemIndex;
+
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.ai.goal.FleeEntityGoal;
+import net.minecraft.entity.mob.PathAwareEntity;
+
+/**
+ * Flees from entities wearing a particular item.
+ * <p>
+ * Only searches for entities to flee from once the world's {@link WornItemIndex} says somebody wearing the item is close enough,
+ * so mobs don't scan their surroundings every tick when nobody is.
+ */
+public class FleeWearerGoal extends FleeEntityGoal<LivingEntity> {
+    private final ItemTracker.Trackable item;
+
+    public FleeWearerGoal(PathAwareEntity mob, ItemTracker.Trackable item, float distance, double slowSpeed, double fastSpeed, Predicate<LivingEntity> inclusionSelector) {
+        super(mob, LivingEntity.class, distance, slowSpeed, fastSpeed, inclusionSelector);
+        this.item = item;
+    }
+
+    @Override
+    public boolean canStart() {
+        return WornItemIndex.get(mob.getWorld()).isWornWithin(item, mob.getBoundingBox().expand(fleeDistance, 3, fleeDistance))
+                && super.canStart();
+    }
+}
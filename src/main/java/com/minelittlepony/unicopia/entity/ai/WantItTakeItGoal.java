@@ -6,6 +6,7 @@ import com.minelittlepony.unicopia.item.enchantment.UEnchantments;
 import com.minelittlepony.unicopia.particle.FollowingParticleEffect;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.particle.UParticles;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EquipmentSlot;
@@ -28,6 +29,11 @@ public class WantItTakeItGoal extends BreakHeartGoal {
         super(mob, targetter);
     }
 
+    @Override
+    protected TargetIndex.Kind getTargetKind() {
+        return TargetIndex.Kind.WANT_IT_NEED_IT;
+    }
+
     @Override
     protected boolean canTarget(Entity e) {
         return (!e.isRemoved() && e instanceof ItemEntity && EnchantmentHelper.getLevel(UEnchantments.WANT_IT_NEED_IT, ((ItemEntity)e).getStack()) > 0)
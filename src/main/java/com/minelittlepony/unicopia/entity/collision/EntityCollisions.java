@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
+import com.minelittlepony.unicopia.server.world.CollidableIndex;
 
 import net.minecraft.block.ShapeContext;
 import net.minecraft.entity.Entity;
@@ -17,6 +18,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
+import net.minecraft.world.World;
 import net.minecraft.world.WorldAccess;
 
 public class EntityCollisions {
@@ -41,17 +43,29 @@ public class EntityCollisions {
     }
 
     public static List<VoxelShape> getColissonShapes(@Nullable Entity entity, WorldAccess world, Box box) {
+        if (!(world instanceof World w)) {
+            return List.of();
+        }
+
+        Entity[] candidates = CollidableIndex.get(w).getEntities();
+        if (candidates.length == 0) {
+            return List.of();
+        }
+
         ShapeContext ctx = entity == null ? ShapeContext.absent() : ShapeContext.of(entity);
+        Box area = box.expand(50);
         return collectCollisionBoxes(box, collector -> {
-            world.getOtherEntities(entity, box.expand(50), e -> {
+            for (Entity e : candidates) {
+                if (e == entity || e.isRemoved() || e.getWorld() != w || !e.getBoundingBox().intersects(area)) {
+                    continue;
+                }
                 Caster.of(e).flatMap(c -> c.getSpellSlot().get(SpellPredicate.IS_DISGUISE, false)).ifPresent(p -> {
                     p.getDisguise().getCollissionShapes(ctx, collector);
                 });
                 if (e instanceof ComplexCollidable collidable) {
                     collidable.getCollissionShapes(ctx, collector);
                 }
-                return false;
-            });
+            }
         });
     }
 
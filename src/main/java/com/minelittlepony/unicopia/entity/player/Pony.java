@@ -78,8 +78,6 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     static final int INITIAL_SUN_IMMUNITY = 20;
 
-    private static final TrackedData<NbtCompound> EFFECT = DataTracker.registerData(PlayerEntity.class, TrackedDataHandlerRegistry.NBT_COMPOUND);
-
     private final AbilityDispatcher powers = new AbilityDispatcher(this);
     private final PlayerPhysics gravity = addTicker(new PlayerPhysics(this));
     private final PlayerCharmTracker charms = new PlayerCharmTracker(this);
@@ -96,7 +94,12 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     private Race respawnRace = Race.UNSET;
 
-    private boolean dirty;
+    private final Set<Component> dirtyComponents = EnumSet.noneOf(Component.class);
+    /**
+     * Players that have started tracking this one and are waiting to be sent its shared components.
+     * They are sent on this player's next tick, after its spawn packet has reached them.
+     */
+    private final List<ServerPlayerEntity> pendingTrackers = new ArrayList<>();
 
     private int ticksHanging;
 
@@ -114,7 +117,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     private int animationDuration;
 
     public Pony(PlayerEntity player) {
-        super(player, EFFECT);
+        super(player);
         this.mana = addTicker(new ManaContainer(this));
         this.levels = new PlayerLevelStore(this, LEVEL, true, SoundEvents.ENTITY_PLAYER_LEVELUP);
         this.corruption = new PlayerLevelStore(this, CORRUPTION, false, SoundEvents.PARTICLE_SOUL_ESCAPE);
@@ -292,19 +295,56 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     @Override
     public void setDirty() {
-        dirty = true;
+        dirtyComponents.addAll(Component.ALL);
+    }
+
+    /**
+     * Marks a single component as changed so only that part of the player's capabilities is sent at the end of the tick.
+     */
+    public void setDirty(Component component) {
+        dirtyComponents.add(component);
+    }
+
+    /**
+     * Queues every shared component to be sent to a player that has just started tracking this one.
+     */
+    public void sendTo(ServerPlayerEntity player) {
+        if (player != entity) {
+            pendingTrackers.add(player);
+        }
     }
 
     private void sendCapabilities() {
-        if (!dirty) {
+        if (!pendingTrackers.isEmpty()) {
+            Set<Component> shared = EnumSet.copyOf(Component.ALL);
+            shared.removeIf(component -> !component.isShared());
+            MsgOtherPlayerCapabilities msg = new MsgOtherPlayerCapabilities(this, shared);
+            pendingTrackers.forEach(player -> {
+                if (!player.isDisconnected()) {
+                    Channel.SERVER_OTHER_PLAYER_CAPABILITIES.sendToPlayer(msg, player);
+                }
+            });
+            pendingTrackers.clear();
+        }
+
+        if (dirtyComponents.isEmpty()) {
             return;
         }
-        dirty = false;
+
+        Set<Component> components = EnumSet.copyOf(dirtyComponents);
+        dirtyComponents.clear();
 
         if (entity instanceof ServerPlayerEntity) {
-            MsgOtherPlayerCapabilities packet = new MsgOtherPlayerCapabilities(this);
-            Channel.SERVER_PLAYER_CAPABILITIES.sendToPlayer(packet, (ServerPlayerEntity)entity);
-            Channel.SERVER_OTHER_PLAYER_CAPABILITIES.sendToSurroundingPlayers(packet, entity);
+            Set<Component> shared = EnumSet.copyOf(components);
+            shared.removeIf(component -> !component.isShared());
+
+            components.add(Component.STATE);
+            Channel.SERVER_PLAYER_CAPABILITIES.sendToPlayer(new MsgPlayerCapabilities(this, components), (ServerPlayerEntity)entity);
+
+            if (!shared.isEmpty()) {
+                shared.add(Component.STATE);
+                Channel.SERVER_OTHER_PLAYER_CAPABILITIES.sendToSurroundingPlayers(new MsgOtherPlayerCapabilities(this, shared), entity);
+            }
         }
     }
 
@@ -557,18 +597,18 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
             if (entity.age % (10 * ItemTracker.SECONDS) == 0) {
                 if (entity.getWorld().random.nextInt(100) == 0) {
                     corruption.add(-1);
-                    setDirty();
+                    setDirty(Component.LEVELS);
                 }
 
                 if (entity.getHealth() >= entity.getMaxHealth() - 1 && !entity.getHungerManager().isNotFull()) {
                     corruption.add(-entity.getWorld().random.nextInt(4));
-                    setDirty();
+                    setDirty(Component.LEVELS);
                 }
             }
 
             if (entity.hurtTime == 1 && getSpecies().canCast()) {
                 corruption.add(1);
-                setDirty();
+                setDirty(Component.LEVELS);
             }
         }
     }
@@ -776,50 +816,93 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     @Override
     public void toSyncronisedNbt(NbtCompound compound) {
-        super.toSyncronisedNbt(compound);
-        compound.putString("playerSpecies", Race.REGISTRY.getId(getActualSpecies()).toString());
-        compound.putFloat("magicExhaustion", magicExhaustion);
-        compound.putInt("ticksHanging", ticksHanging);
-        BLOCK_POS.writeOptional("hangingPosition", compound, getHangingPosition());
-        compound.putInt("ticksInSun", ticksInSun);
-        compound.putBoolean("hasShades", hasShades);
-        compound.put("powers", powers.toNBT());
-        compound.put("gravity", gravity.toNBT());
-        compound.put("charms", charms.toNBT());
-        compound.put("discoveries", discoveries.toNBT());
-        compound.put("mana", mana.toNBT());
-        compound.putInt("levels", levels.get());
-        compound.putInt("corruption", corruption.get());
-
-        NbtCompound progress = new NbtCompound();
-        advancementProgress.forEach((key, count) -> {
-            progress.putInt(key, count);
-        });
-        compound.put("advancementProgress", progress);
+        toSyncronisedNbt(compound, Component.ALL);
     }
 
+    /**
+     * Writes only the requested components of this player's capabilities.
+     */
+    public void toSyncronisedNbt(NbtCompound compound, Set<Component> components) {
+        if (components.contains(Component.STATE)) {
+            super.toSyncronisedNbt(compound);
+            compound.putFloat("magicExhaustion", magicExhaustion);
+            compound.putInt("ticksHanging", ticksHanging);
+            BLOCK_POS.writeOptional("hangingPosition", compound, getHangingPosition());
+            compound.putInt("ticksInSun", ticksInSun);
+            compound.putBoolean("hasShades", hasShades);
+        }
+        if (components.contains(Component.SPECIES)) {
+            compound.putString("playerSpecies", Race.REGISTRY.getId(getActualSpecies()).toString());
+        }
+        if (components.contains(Component.POWERS)) {
+            compound.put("powers", powers.toNBT());
+        }
+        if (components.contains(Component.GRAVITY)) {
+            compound.put("gravity", gravity.toNBT());
+        }
+        if (components.contains(Component.CHARMS)) {
+            compound.put("charms", charms.toNBT());
+        }
+        if (components.contains(Component.DISCOVERIES)) {
+            compound.put("discoveries", discoveries.toNBT());
+        }
+        if (components.contains(Component.MANA)) {
+            compound.put("mana", mana.toNBT());
+        }
+        if (components.contains(Component.LEVELS)) {
+            compound.putInt("levels", levels.get());
+            compound.putInt("corruption", corruption.get());
+        }
+        if (components.contains(Component.ADVANCEMENTS)) {
+            NbtCompound progress = new NbtCompound();
+            advancementProgress.forEach((key, count) -> {
+                progress.putInt(key, count);
+            });
+            compound.put("advancementProgress", progress);
+        }
+    }
+
+    /**
+     * Reads whichever components are present in the passed compound, leaving the rest unchanged.
+     */
     @Override
     public void fromSynchronizedNbt(NbtCompound compound) {
-        super.fromSynchronizedNbt(compound);
-        setSpecies(Race.fromName(compound.getString("playerSpecies"), Race.HUMAN));
-        powers.fromNBT(compound.getCompound("powers"));
-        gravity.fromNBT(compound.getCompound("gravity"));
-        charms.fromNBT(compound.getCompound("charms"));
-        discoveries.fromNBT(compound.getCompound("discoveries"));
-        levels.set(compound.getInt("levels"));
-        corruption.set(compound.getInt("corruption"));
-        mana.fromNBT(compound.getCompound("mana"));
-
-        magicExhaustion = compound.getFloat("magicExhaustion");
-        ticksHanging = compound.getInt("ticksHanging");
-        entity.getDataTracker().set(HANGING_POSITION, NbtSerialisable.BLOCK_POS.readOptional("hangingPosition", compound));
-        ticksInSun = compound.getInt("ticksInSun");
-        hasShades = compound.getBoolean("hasShades");
-
-        NbtCompound progress = compound.getCompound("advancementProgress");
-        advancementProgress.clear();
-        for (String key : progress.getKeys()) {
-            advancementProgress.put(key, progress.getInt(key));
+        if (compound.contains("magicExhaustion")) {
+            super.fromSynchronizedNbt(compound);
+            magicExhaustion = compound.getFloat("magicExhaustion");
+            ticksHanging = compound.getInt("ticksHanging");
+            entity.getDataTracker().set(HANGING_POSITION, NbtSerialisable.BLOCK_POS.readOptional("hangingPosition", compound));
+            ticksInSun = compound.getInt("ticksInSun");
+            hasShades = compound.getBoolean("hasShades");
+        }
+        if (compound.contains("playerSpecies")) {
+            setSpecies(Race.fromName(compound.getString("playerSpecies"), Race.HUMAN));
+        }
+        if (compound.contains("powers")) {
+            powers.fromNBT(compound.getCompound("powers"));
+        }
+        if (compound.contains("gravity")) {
+            gravity.fromNBT(compound.getCompound("gravity"));
+        }
+        if (compound.contains("charms")) {
+            charms.fromNBT(compound.getCompound("charms"));
+        }
+        if (compound.contains("discoveries")) {
+            discoveries.fromNBT(compound.getCompound("discoveries"));
+        }
+        if (compound.contains("levels")) {
+            levels.set(compound.getInt("levels"));
+            corruption.set(compound.getInt("corruption"));
+        }
+        if (compound.contains("mana")) {
+            mana.fromNBT(compound.getCompound("mana"));
+        }
+        if (compound.contains("advancementProgress")) {
+            NbtCompound progress = compound.getCompound("advancementProgress");
+            advancementProgress.clear();
+            for (String key : progress.getKeys()) {
+                advancementProgress.put(key, progress.getInt(key));
+            }
         }
     }
 
@@ -883,7 +966,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
                 getCorruption().add(1);
             }
             getCorruption().add((int)spell.getTraits().getCorruption());
-            setDirty();
+            setDirty(Component.LEVELS);
         }
     }
 
@@ -916,4 +999,37 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     public static boolean equal(PlayerEntity one, PlayerEntity two) {
         return one == two || (one != null && two != null && equal(one.getGameProfile(), two.getGameProfile()));
     }
+
+    /**
+     * The independently synchronised parts of a player's capabilities.
+     */
+    public enum Component {
+        /**
+         * Frequently changing bookkeeping (hanging, sun exposure, armour) that is sent along with every other component.
+         */
+        STATE(true),
+        SPECIES(true),
+        POWERS(true),
+        GRAVITY(true),
+        CHARMS(true),
+        DISCOVERIES(false),
+        MANA(true),
+        LEVELS(true),
+        ADVANCEMENTS(false);
+
+        public static final Set<Component> ALL = Collections.unmodifiableSet(EnumSet.allOf(Component.class));
+
+        private final boolean shared;
+
+        Component(boolean shared) {
+            this.shared = shared;
+        }
+
+        /**
+         * Whether this component is sent to other players as well as to the player it belongs to.
+         */
+        public boolean isShared() {
+            return shared;
+        }
+    }
 }
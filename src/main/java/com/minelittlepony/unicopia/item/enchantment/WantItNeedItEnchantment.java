@@ -5,6 +5,7 @@ import com.minelittlepony.unicopia.entity.Living;
 import com.minelittlepony.unicopia.particle.FollowingParticleEffect;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.particle.UParticles;
+import com.minelittlepony.unicopia.server.world.TargetIndex;
 
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.item.ItemStack;
@@ -17,6 +18,9 @@ public class WantItNeedItEnchantment extends SimpleEnchantment {
 
     @Override
     public void onUserTick(Living<?> user, int level) {
+        if (!user.isClient()) {
+            TargetIndex.get(user.asWorld()).put(TargetIndex.Kind.WANT_IT_NEED_IT, user.asEntity());
+        }
         if (user instanceof Creature && user.asWorld().random.nextInt(10) == 0) {
             ParticleUtils.spawnParticles(new FollowingParticleEffect(UParticles.HEALTH_DRAIN, user.asEntity(), 0.2F), user.asEntity(), 1);
         }
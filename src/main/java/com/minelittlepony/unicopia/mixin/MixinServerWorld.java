@@ -11,8 +11,11 @@ import org.spongepowered.asm.mixin.injection.ModifyConstant;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import com.minelittlepony.unicopia.ability.data.tree.TreeShapeCache;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.HydrophobicRegions;
 import com.minelittlepony.unicopia.server.world.NocturnalSleepManager;
+import com.minelittlepony.unicopia.server.world.WeatherConditions;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -32,6 +35,11 @@ abstract class MixinServerWorld extends World implements StructureWorldAccess, N
     @Inject(method = "onBlockChanged", at = @At("HEAD"))
     private void onOnBlockChanged(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo info) {
         ((BlockDestructionManager.Source)this).getDestructionManager().onBlockChanged(pos, oldState, newState);
+        if (!newState.getFluidState().isEmpty()) {
+            HydrophobicRegions.get(this).onFluidPlaced(pos);
+        }
+        WeatherConditions.get(this).getAirflowField().onBlockChanged(pos);
+        TreeShapeCache.get(this).onBlockChanged(pos);
     }
 
     @ModifyConstant(method = "sendSleepingStatus()V", constant = @Constant(
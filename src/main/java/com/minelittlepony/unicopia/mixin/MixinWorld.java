@@ -16,6 +16,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import com.minelittlepony.unicopia.entity.collision.EntityCollisions;
 import com.minelittlepony.unicopia.entity.duck.RotatedView;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.WorldStateSlots;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
@@ -26,10 +27,12 @@ import net.minecraft.world.World;
 import net.minecraft.world.WorldAccess;
 
 @Mixin(World.class)
-abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source, RotatedView {
+abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source, RotatedView, WorldStateSlots.Holder {
 
     private final Supplier<BlockDestructionManager> destructions = BlockDestructionManager.create((World)(Object)this);
 
+    private final WorldStateSlots stateSlots = new WorldStateSlots();
+
     private int recurseCount = 0;
     private final Stack<Integer> rotations = new Stack<>();
 
@@ -48,6 +51,11 @@ abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source
         return destructions.get();
     }
 
+    @Override
+    public WorldStateSlots getStateSlots() {
+        return stateSlots;
+    }
+
     @Override
     public List<VoxelShape> getEntityCollisions(@Nullable Entity entity, Box box) {
         if (box.getAverageSideLength() >= 1.0E-7D) {
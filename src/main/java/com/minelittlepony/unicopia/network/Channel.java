@@ -1,10 +1,14 @@
 package com.minelittlepony.unicopia.network;
 
 import com.minelittlepony.unicopia.*;
+import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.entity.player.Pony;
+import com.minelittlepony.unicopia.network.datasync.EffectSync;
 import com.minelittlepony.unicopia.server.world.WorldTribeManager;
 import com.sollace.fabwork.api.packets.*;
 
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.networking.v1.EntityTrackingEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -30,6 +34,9 @@ public interface Channel {
 
     S2CPacketType<MsgOtherPlayerCapabilities> SERVER_OTHER_PLAYER_CAPABILITIES = SimpleNetworking.serverToClient(Unicopia.id("other_player_capabilities"), MsgOtherPlayerCapabilities::new);
     S2CPacketType<MsgPlayerAnimationChange> SERVER_PLAYER_ANIMATION_CHANGE = SimpleNetworking.serverToClient(Unicopia.id("other_player_animation_change"), MsgPlayerAnimationChange::new);
+    S2CPacketType<MsgSpellSync> SERVER_SPELL_SYNC = SimpleNetworking.serverToClient(Unicopia.id("spell_sync"), MsgSpellSync::new);
+    S2CPacketType<MsgParticleBurst> SERVER_PARTICLE_BURST = SimpleNetworking.serverToClient(Unicopia.id("particle_burst"), MsgParticleBurst::new);
+    S2CPacketType<MsgShockwave> SERVER_SHOCKWAVE = SimpleNetworking.serverToClient(Unicopia.id("shockwave"), MsgShockwave::new);
 
     static void bootstrap() {
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
@@ -48,5 +55,20 @@ public interface Channel {
             }
             sender.sendPacket(SERVER_RESOURCES_SEND.id(), new MsgServerResources().toBuffer());
         });
+        EntityTrackingEvents.START_TRACKING.register((entity, player) -> {
+            if (entity instanceof PlayerEntity tracked) {
+                Pony.of(tracked).sendTo(player);
+            }
+            Caster.of(entity).map(Caster::getSpellSlot).ifPresent(slot -> {
+                if (slot instanceof EffectSync sync) {
+                    sync.sendTo(player);
+                }
+            });
+        });
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> {
+            if (Pony.of(player).getSpellSlot() instanceof EffectSync sync) {
+                sync.requestFullSync();
+            }
+        });
     }
 }
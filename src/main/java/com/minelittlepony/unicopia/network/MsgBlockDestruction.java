@@ -1,30 +1,105 @@
 package com.minelittlepony.unicopia.network;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import com.sollace.fabwork.api.packets.Packet;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.entity.player.PlayerEntity;
 
 /**
  * Sent by the server to update block destruction progress on the client.
+ * <p>
+ * Each message covers a single chunk. Positions are packed relative to the chunk,
+ * sorted, and written as the difference from the previous position, so most entries only take a couple of bytes.
  */
-public record MsgBlockDestruction (Long2ObjectMap<Float> destructions) implements Packet<PlayerEntity> {
+public record MsgBlockDestruction (int chunkX, int chunkZ, int[] positions, byte[] damage) implements Packet<PlayerEntity> {
+    /**
+     * The most entries sent in a single message. Larger updates are split across several messages.
+     */
+    public static final int MAX_ENTRIES = 4096;
+
+    private static final int Y_OFFSET = 2048;
+
     MsgBlockDestruction(PacketByteBuf buffer) {
-        this(new Long2ObjectOpenHashMap<>());
-        int size = buffer.readInt();
-        for (int i = 0; i < size; i++) {
-            destructions.put(buffer.readLong(), (Float)buffer.readFloat());
+        this(buffer.readVarInt(), buffer.readVarInt(), readPositions(buffer), buffer.readByteArray());
+    }
+
+    /**
+     * Creates the messages needed to send the given destruction values, which must all be in the same chunk.
+     */
+    public static List<MsgBlockDestruction> create(long[] blockPositions, byte[] values, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+
+        int chunkX = ChunkSectionPos.getSectionCoord(BlockPos.unpackLongX(blockPositions[0]));
+        int chunkZ = ChunkSectionPos.getSectionCoord(BlockPos.unpackLongZ(blockPositions[0]));
+
+        // pack each position and its damage into one int so they can be sorted together
+        int[] entries = new int[count];
+        for (int i = 0; i < count; i++) {
+            long pos = blockPositions[i];
+            int local = ((BlockPos.unpackLongY(pos) + Y_OFFSET) << 8)
+                    | ((BlockPos.unpackLongZ(pos) & 15) << 4)
+                    | (BlockPos.unpackLongX(pos) & 15);
+            entries[i] = (local << 8) | (values[i] & 0xFF);
+        }
+        Arrays.sort(entries);
+
+        List<MsgBlockDestruction> messages = new ArrayList<>();
+        for (int start = 0; start < count; start += MAX_ENTRIES) {
+            int size = Math.min(MAX_ENTRIES, count - start);
+            int[] positions = new int[size];
+            byte[] damage = new byte[size];
+            for (int i = 0; i < size; i++) {
+                positions[i] = entries[start + i] >>> 8;
+                damage[i] = (byte)entries[start + i];
+            }
+            messages.add(new MsgBlockDestruction(chunkX, chunkZ, positions, damage));
+        }
+        return messages;
+    }
+
+    private static int[] readPositions(PacketByteBuf buffer) {
+        int[] positions = new int[buffer.readVarInt()];
+        int previous = 0;
+        for (int i = 0; i < positions.length; i++) {
+            previous += buffer.readVarInt();
+            positions[i] = previous;
+        }
+        return positions;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < positions.length; i++) {
+            int local = positions[i];
+            consumer.accept(BlockPos.asLong(
+                    ChunkSectionPos.getBlockCoord(chunkX) + (local & 15),
+                    (local >>> 8) - Y_OFFSET,
+                    ChunkSectionPos.getBlockCoord(chunkZ) + ((local >> 4) & 15)
+            ), damage[i]);
         }
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
-        buffer.writeInt(destructions.size());
-        destructions.forEach((p, i) -> {
-            buffer.writeLong(p);
-            buffer.writeFloat(i);
-        });
+        buffer.writeVarInt(chunkX);
+        buffer.writeVarInt(chunkZ);
+        buffer.writeVarInt(positions.length);
+        int previous = 0;
+        for (int position : positions) {
+            buffer.writeVarInt(position - previous);
+            previous = position;
+        }
+        buffer.writeByteArray(damage);
+    }
+
+    public interface Consumer {
+        void accept(long pos, float amount);
     }
 }
@@ -1,5 +1,7 @@
 package com.minelittlepony.unicopia.network;
 
+import java.util.Set;
+
 import com.minelittlepony.unicopia.entity.player.Pony;
 
 import net.minecraft.client.MinecraftClient;
@@ -19,6 +21,10 @@ public class MsgOtherPlayerCapabilities extends MsgPlayerCapabilities {
         super(player);
     }
 
+    public MsgOtherPlayerCapabilities(Pony player, Set<Pony.Component> components) {
+        super(player, components);
+    }
+
     @Override
     protected Pony getRecipient(PlayerEntity sender) {
         return Pony.of(MinecraftClient.getInstance().world.getPlayerByUuid(playerId));
@@ -0,0 +1,73 @@
+package com.minelittlepony.unicopia.network;
+
+import java.util.List;
+
+import com.minelittlepony.unicopia.particle.ParticleFactoryHelper;
+import com.sollace.fabwork.api.packets.Packet;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.particle.ParticleType;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Sent by the server to spawn a batch of particles on the client.
+ * <p>
+ * Each distinct effect is written once and particles refer to it by index.
+ * Positions are written as offsets from the origin, so each particle only takes a few bytes.
+ */
+public record MsgParticleBurst (List<ParticleEffect> effects, Vec3d origin, int[] types, float[] offsets) implements Packet<PlayerEntity> {
+    /**
+     * The most particles sent in a single message.
+     */
+    public static final int MAX_PARTICLES = 1024;
+
+    MsgParticleBurst(PacketByteBuf buffer) {
+        this(buffer.readList(MsgParticleBurst::readEffect), new Vec3d(buffer.readDouble(), buffer.readDouble(), buffer.readDouble()), buffer.readIntArray(), readOffsets(buffer));
+    }
+
+    private static ParticleEffect readEffect(PacketByteBuf buffer) {
+        ParticleType<?> type = buffer.readRegistryValue(Registries.PARTICLE_TYPE);
+        return ParticleFactoryHelper.read(type, buffer).orElseThrow(() -> new IllegalArgumentException("Unreadable particle type " + Registries.PARTICLE_TYPE.getId(type)));
+    }
+
+    private static float[] readOffsets(PacketByteBuf buffer) {
+        float[] offsets = new float[buffer.readVarInt()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = buffer.readFloat();
+        }
+        return offsets;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < types.length; i++) {
+            consumer.accept(effects.get(types[i]),
+                    origin.x + offsets[i * 3],
+                    origin.y + offsets[i * 3 + 1],
+                    origin.z + offsets[i * 3 + 2]
+            );
+        }
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        buffer.writeCollection(effects, (b, effect) -> {
+            b.writeRegistryValue(Registries.PARTICLE_TYPE, effect.getType());
+            effect.write(b);
+        });
+        buffer.writeDouble(origin.x);
+        buffer.writeDouble(origin.y);
+        buffer.writeDouble(origin.z);
+        buffer.writeIntArray(types);
+        buffer.writeVarInt(offsets.length);
+        for (float offset : offsets) {
+            buffer.writeFloat(offset);
+        }
+    }
+
+    public interface Consumer {
+        void accept(ParticleEffect effect, double x, double y, double z);
+    }
+}
@@ -3,7 +3,10 @@ package com.minelittlepony.unicopia.network;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.entity.player.Pony;
@@ -11,17 +14,21 @@ import com.sollace.fabwork.api.packets.HandledPacket;
 
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtIo;
 
 /**
  * Sent to the client to update various data pertaining to a particular player.
  * <p>
+ * Only carries the components that have changed. Payloads smaller than {@link #COMPRESSION_THRESHOLD}
+ * are sent uncompressed, since gzip only adds to their size.
+ * <p>
  * Also used by the server to notify a race change.
  */
 public class MsgPlayerCapabilities implements HandledPacket<PlayerEntity> {
+    private static final int COMPRESSION_THRESHOLD = 256;
 
     protected final UUID playerId;
 
@@ -29,25 +36,45 @@ public class MsgPlayerCapabilities implements HandledPacket<PlayerEntity> {
 
     MsgPlayerCapabilities(PacketByteBuf buffer) {
         playerId = buffer.readUuid();
-        try (InputStream in = new ByteBufInputStream(buffer)) {
-            compoundTag = NbtIo.readCompressed(in);
+        if (!buffer.readBoolean()) {
+            compoundTag = buffer.readNbt();
+            return;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteBufInputStream(buffer))) {
+            compoundTag = new PacketByteBuf(Unpooled.wrappedBuffer(in.readAllBytes())).readNbt();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     public MsgPlayerCapabilities(Pony player) {
+        this(player, Pony.Component.ALL);
+    }
+
+    public MsgPlayerCapabilities(Pony player, Set<Pony.Component> components) {
         playerId = player.asEntity().getUuid();
         compoundTag = new NbtCompound();
-        player.toSyncronisedNbt(compoundTag);
+        player.toSyncronisedNbt(compoundTag, components);
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
         buffer.writeUuid(playerId);
-        try (OutputStream out = new ByteBufOutputStream(buffer)) {
-            NbtIo.writeCompressed(compoundTag, out);
+
+        PacketByteBuf raw = new PacketByteBuf(Unpooled.buffer());
+        raw.writeNbt(compoundTag);
+        if (raw.readableBytes() < COMPRESSION_THRESHOLD) {
+            buffer.writeBoolean(false);
+            buffer.writeBytes(raw);
+            return;
+        }
+
+        // compress the bytes already written rather than serialising the nbt a second time
+        buffer.writeBoolean(true);
+        try (OutputStream out = new GZIPOutputStream(new ByteBufOutputStream(buffer))) {
+            raw.readBytes(out, raw.readableBytes());
         } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -0,0 +1,65 @@
+package com.minelittlepony.unicopia.network;
+
+import java.util.function.Consumer;
+
+import com.sollace.fabwork.api.packets.Packet;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Sent by the server when a shockwave has passed over some blocks without breaking them,
+ * so the client can show their break effects itself rather than being sent a world event for each one.
+ * <p>
+ * Positions are written as offsets from the center of the wave, so each block only takes a few bytes.
+ */
+public record MsgShockwave (BlockPos center, int reach, int[] offsets) implements Packet<PlayerEntity> {
+
+    MsgShockwave(PacketByteBuf buffer) {
+        this(buffer, buffer.readBlockPos(), buffer.readVarInt());
+    }
+
+    private MsgShockwave(PacketByteBuf buffer, BlockPos center, int reach) {
+        this(center, reach, readOffsets(buffer, reach));
+    }
+
+    private static int[] readOffsets(PacketByteBuf buffer, int reach) {
+        int[] offsets = new int[buffer.readVarInt()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = buffer.readVarInt() - reach;
+        }
+        return offsets;
+    }
+
+    public static MsgShockwave create(BlockPos center, LongList positions) {
+        int reach = 0;
+        int[] offsets = new int[positions.size() * 3];
+        for (int i = 0; i < positions.size(); i++) {
+            long pos = positions.getLong(i);
+            offsets[i * 3] = BlockPos.unpackLongX(pos) - center.getX();
+            offsets[i * 3 + 1] = BlockPos.unpackLongY(pos) - center.getY();
+            offsets[i * 3 + 2] = BlockPos.unpackLongZ(pos) - center.getZ();
+            reach = Math.max(reach, Math.max(Math.abs(offsets[i * 3]), Math.max(Math.abs(offsets[i * 3 + 1]), Math.abs(offsets[i * 3 + 2]))));
+        }
+        return new MsgShockwave(center, reach, offsets);
+    }
+
+    public void forEach(Consumer<BlockPos> consumer) {
+        for (int i = 0; i + 2 < offsets.length; i += 3) {
+            consumer.accept(center.add(offsets[i], offsets[i + 1], offsets[i + 2]));
+        }
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        buffer.writeBlockPos(center);
+        buffer.writeVarInt(reach);
+        // offsets are shifted by the reach so none of them are negative and they fit in the fewest bytes
+        buffer.writeVarInt(offsets.length);
+        for (int offset : offsets) {
+            buffer.writeVarInt(offset + reach);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.minelittlepony.unicopia.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.sollace.fabwork.api.packets.Packet;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.network.PacketByteBuf;
+
+/**
+ * Sent by the server to update the spells held by an entity on the client.
+ * <p>
+ * Only the spells that were added or removed, and the fields of spells that changed,
+ * since the previous update are included. A full update carries every spell and replaces
+ * whatever the client had before.
+ */
+public record MsgSpellSync (int entityId, int sequence, boolean full, List<Change> changes, List<UUID> removals) implements Packet<PlayerEntity> {
+    MsgSpellSync(PacketByteBuf buffer) {
+        this(buffer.readVarInt(), buffer.readVarInt(), buffer.readBoolean(), buffer.readList(Change::new), buffer.readList(PacketByteBuf::readUuid));
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && removals.isEmpty();
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        buffer.writeVarInt(entityId);
+        buffer.writeVarInt(sequence);
+        buffer.writeBoolean(full);
+        buffer.writeCollection(changes, (b, change) -> change.toBuffer(b));
+        buffer.writeCollection(removals, PacketByteBuf::writeUuid);
+    }
+
+    /**
+     * The fields of a single spell that were set or cleared since the last update.
+     *
+     * @param replace True if the fields replace the spell's previous state entirely (i.e. the spell was just added).
+     */
+    public record Change (UUID id, boolean replace, NbtCompound values, List<String> cleared) {
+        Change(PacketByteBuf buffer) {
+            this(buffer.readUuid(), buffer.readBoolean(), buffer.readNbt(), buffer.readList(PacketByteBuf::readString));
+        }
+
+        /**
+         * Creates a change that sends the whole of a spell's serialised state.
+         */
+        public static Change of(UUID id, NbtCompound values) {
+            return new Change(id, true, values, List.of());
+        }
+
+        /**
+         * Compares two serialised states of a spell and creates a change containing only the fields that differ.
+         */
+        public static Optional<Change> of(UUID id, NbtCompound previous, NbtCompound current) {
+            NbtCompound values = new NbtCompound();
+            List<String> cleared = new ArrayList<>();
+
+            for (String key : current.getKeys()) {
+                NbtElement value = current.get(key);
+                if (!value.equals(previous.get(key))) {
+                    values.put(key, value);
+                }
+            }
+            for (String key : previous.getKeys()) {
+                if (!current.contains(key)) {
+                    cleared.add(key);
+                }
+            }
+
+            if (values.isEmpty() && cleared.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Change(id, false, values, cleared));
+        }
+
+        /**
+         * Applies this change to the last known state of the spell.
+         *
+         * @return A new compound containing the spell's current state.
+         */
+        public NbtCompound apply(@Nullable NbtCompound previous) {
+            NbtCompound compound = replace || previous == null ? new NbtCompound() : previous.copy();
+            cleared.forEach(compound::remove);
+            values.getKeys().forEach(key -> compound.put(key, values.get(key).copy()));
+            return compound;
+        }
+
+        void toBuffer(PacketByteBuf buffer) {
+            buffer.writeUuid(id);
+            buffer.writeBoolean(replace);
+            buffer.writeNbt(values);
+            buffer.writeCollection(cleared, PacketByteBuf::writeString);
+        }
+    }
+}
@@ -1,26 +1,34 @@
 package com.minelittlepony.unicopia.network.datasync;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.jetbrains.annotations.Nullable;
 
+import com.google.common.collect.Lists;
 import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.SpellContainer;
 import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
 import com.minelittlepony.unicopia.ability.magic.spell.Spell;
+import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.MsgSpellSync;
+import com.minelittlepony.unicopia.particle.ParticleHandle;
+import com.minelittlepony.unicopia.server.world.SpellIndex;
+import com.minelittlepony.unicopia.server.world.SpellSyncQueue;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 
-import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
 
 /**
  * Synchronisation class for spells.
- * Since we can't have our own serializers, we have to intelligently
- * determine whether to update it from an nbt tag.
+ * <p>
+ * The server sends clients only the spells that were added or removed, and the fields of spells that changed,
+ * batched into at most one {@link MsgSpellSync} per tick. Clients queue the updates they receive
+ * and apply them the next time the spells are read, so reading never has to touch nbt unless something changed.
  *
  * @param <T> The owning entity
  */
@@ -30,15 +38,49 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
 
     private final Caster<?> owner;
 
-    private final TrackedData<NbtCompound> param;
+    /**
+     * The serialised form of each spell as of the last update sent (on the server) or received (on the client).
+     */
+    private final Map<UUID, NbtCompound> synced = new LinkedHashMap<>();
+    /**
+     * Updates received from the server that have not been applied yet.
+     */
+    private final List<MsgSpellSync> pendingUpdates = new ArrayList<>();
 
-    @Nullable
-    private NbtCompound lastValue;
+    /**
+     * The sequence number of the last update sent (on the server) or applied (on the client).
+     */
+    private int sequence = -1;
 
-    public EffectSync(Caster<?> owner, TrackedData<NbtCompound> param) {
+    /**
+     * Players that have started tracking the owner and are waiting to be sent every spell.
+     * They are only sent it when the queue is flushed, after the owner's spawn packet has reached them.
+     */
+    private final List<ServerPlayerEntity> pendingTrackers = new ArrayList<>();
+
+    private boolean queued;
+    private boolean ownerNeedsFullSync = true;
+
+    /**
+     * Set when the spells held by this container have changed and the world's spell index must be re-populated.
+     */
+    private boolean indexDirty;
+    /**
+     * True whilst the owner has an entry in the world's spell index.
+     */
+    private boolean indexed;
+
+    public EffectSync(Caster<?> owner) {
         spells = new NetworkedReferenceSet<>(Spell::getUuid, () -> new SpellNetworkedReference<>(owner));
         this.owner = owner;
-        this.param = param;
+    }
+
+    /**
+     * Checks whether this container has no spells and nothing left to send, apply or index.
+     * Owners can skip ticking their spells entirely whilst this is true.
+     */
+    public boolean isDormant() {
+        return spells.isEmpty() && synced.isEmpty() && pendingUpdates.isEmpty() && !indexDirty && !indexed;
     }
 
     @Override
@@ -48,17 +90,18 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
 
     @Override
     public boolean contains(@Nullable SpellPredicate<?> type) {
-        return read(type, true, false).findFirst().isPresent();
+        return read(type, true).findFirst().isPresent();
     }
 
     @Override
     public <T extends Spell> Optional<T> get(@Nullable SpellPredicate<T> type, boolean update) {
-        return read(type, update, true).findFirst();
+        return read(type, update).findFirst();
     }
 
     @Override
     public void put(@Nullable Spell effect) {
         spells.addReference(effect);
+        indexDirty = true;
         write();
         if (owner instanceof UpdateCallback) {
             ((UpdateCallback)owner).onSpellSet(effect);
@@ -67,26 +110,36 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
 
     @Override
     public boolean removeWhere(Predicate<Spell> test, boolean update) {
+        if (isDormant()) {
+            return false;
+        }
         return reduce(update, (initial, effect) -> {
             if (!test.test(effect)) {
                 return initial;
             }
             spells.removeReference(effect);
+            indexDirty = true;
             return true;
         });
     }
 
     @Override
     public boolean forEach(Function<Spell, Operation> test, boolean update) {
-        return reduce(update, (initial, effect) -> {
+        if (isDormant()) {
+            return false;
+        }
+        boolean result = reduce(update, (initial, effect) -> {
             Operation op = test.apply(effect);
             if (op == Operation.REMOVE) {
                 spells.removeReference(effect);
+                indexDirty = true;
             } else {
                 initial |= op != Operation.SKIP;
             }
             return initial;
         });
+        updateIndex();
+        return result;
     }
 
     @Override
@@ -96,12 +149,13 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
 
     @Override
     public <T extends Spell> Stream<T> stream(@Nullable SpellPredicate<T> type, boolean update) {
-        return read(type, update, true);
+        return read(type, update);
     }
 
     @Override
     public boolean clear() {
         if (spells.clear()) {
+            indexDirty = true;
             write();
             if (owner instanceof UpdateCallback) {
                 ((UpdateCallback)owner).onSpellSet(null);
@@ -112,9 +166,13 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
     }
 
     @SuppressWarnings("unchecked")
-    private <T extends Spell> Stream<T> read(@Nullable SpellPredicate<T> type, boolean synchronize, boolean sendUpdate) {
-        if (synchronize && spells.fromNbt(owner.asEntity().getDataTracker().get(param)) && sendUpdate) {
-            owner.asEntity().getDataTracker().set(param, spells.toNbt());
+    private <T extends Spell> Stream<T> read(@Nullable SpellPredicate<T> type, boolean synchronize) {
+        if (isDormant()) {
+            return Stream.empty();
+        }
+
+        if (owner.isClient() && synchronize && !pendingUpdates.isEmpty()) {
+            applyPendingUpdates();
         }
 
         if (type == null) {
@@ -125,7 +183,7 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
 
     private boolean reduce(boolean update, Alteration alteration) {
         boolean initial = false;
-        for (Spell i : read(null, update, false).toList()) {
+        for (Spell i : read(null, update).toList()) {
             initial = alteration.apply(initial, i);
         }
 
@@ -133,9 +191,181 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
         return initial;
     }
 
+    /**
+     * Keeps the owner's entry in the world's spell index current.
+     * Called every time the owner ticks its spells, so casters that never held a spell never touch the index.
+     */
+    private void updateIndex() {
+        if (owner.isClient()) {
+            return;
+        }
+
+        if (indexDirty) {
+            indexDirty = false;
+            indexed = SpellIndex.get(owner.asWorld()).update(owner);
+        } else if (indexed) {
+            indexed = SpellIndex.get(owner.asWorld()).refresh(owner);
+        }
+    }
+
     private void write() {
-        if (spells.isDirty()) {
-            owner.asEntity().getDataTracker().set(param, spells.toNbt());
+        if (!owner.isClient()) {
+            scheduleSync();
+        }
+    }
+
+    /**
+     * Queues this container to send its changes at the end of the tick.
+     * Containers that have never held a spell are never queued.
+     */
+    private void scheduleSync() {
+        if (!queued && (!spells.isEmpty() || !synced.isEmpty() || !pendingTrackers.isEmpty())) {
+            queued = true;
+            SpellSyncQueue.get(owner.asWorld()).add(this);
+        }
+    }
+
+    /**
+     * Sends the changes made since the last update to the players tracking the owner.
+     */
+    public void flush() {
+        queued = false;
+
+        Entity entity = owner.asEntity();
+        if (entity.isRemoved()) {
+            pendingTrackers.clear();
+            return;
+        }
+
+        MsgSpellSync update = createUpdate();
+        if (!update.isEmpty()) {
+            Channel.SERVER_SPELL_SYNC.sendToSurroundingPlayers(update, entity);
+        }
+
+        if (entity instanceof ServerPlayerEntity player) {
+            if (ownerNeedsFullSync) {
+                ownerNeedsFullSync = false;
+                Channel.SERVER_SPELL_SYNC.sendToPlayer(createFullUpdate(), player);
+            } else if (!update.isEmpty()) {
+                Channel.SERVER_SPELL_SYNC.sendToPlayer(update, player);
+            }
+        }
+
+        if (!pendingTrackers.isEmpty()) {
+            if (!synced.isEmpty()) {
+                MsgSpellSync full = createFullUpdate();
+                pendingTrackers.forEach(player -> {
+                    if (!player.isDisconnected()) {
+                        Channel.SERVER_SPELL_SYNC.sendToPlayer(full, player);
+                    }
+                });
+            }
+            pendingTrackers.clear();
+        }
+    }
+
+    /**
+     * Queues every spell to be sent to a player that has just started tracking the owner.
+     * <p>
+     * Tracking starts before the owner's spawn packet has been sent, so sending straight away would reach
+     * the client before it knows about the entity. The update goes out with the next flush instead.
+     */
+    public void sendTo(ServerPlayerEntity player) {
+        if (!spells.isEmpty() || !synced.isEmpty()) {
+            pendingTrackers.add(player);
+            scheduleSync();
+        }
+    }
+
+    /**
+     * Marks the owning player's own client as needing every spell to be sent again,
+     * such as when they have been moved to a different world.
+     */
+    public void requestFullSync() {
+        ownerNeedsFullSync = true;
+        if (!owner.isClient()) {
+            scheduleSync();
+        }
+    }
+
+    private MsgSpellSync createUpdate() {
+        List<MsgSpellSync.Change> changes = new ArrayList<>();
+        Map<UUID, NbtCompound> current = new LinkedHashMap<>();
+
+        spells.getReferences().forEach(spell -> {
+            UUID id = spell.getUuid();
+            NbtCompound previous = synced.remove(id);
+            if (previous == null) {
+                NbtCompound values = Spell.writeNbt(spell);
+                spell.markClean();
+                changes.add(MsgSpellSync.Change.of(id, values));
+                current.put(id, values);
+            } else if (spell.isDirty()) {
+                NbtCompound values = Spell.writeNbt(spell);
+                spell.markClean();
+                MsgSpellSync.Change.of(id, previous, values).ifPresent(changes::add);
+                current.put(id, values);
+            } else {
+                current.put(id, previous);
+            }
+        });
+
+        List<UUID> removals = new ArrayList<>(synced.keySet());
+        synced.clear();
+        synced.putAll(current);
+
+        if (!changes.isEmpty() || !removals.isEmpty()) {
+            sequence++;
+        }
+        return new MsgSpellSync(owner.asEntity().getId(), sequence, false, changes, removals);
+    }
+
+    private MsgSpellSync createFullUpdate() {
+        List<MsgSpellSync.Change> changes = new ArrayList<>();
+        synced.forEach((id, values) -> changes.add(MsgSpellSync.Change.of(id, values)));
+        return new MsgSpellSync(owner.asEntity().getId(), sequence, true, changes, List.of());
+    }
+
+    /**
+     * Queues an update received from the server to be applied the next time the spells are read.
+     */
+    public void receive(MsgSpellSync update) {
+        pendingUpdates.add(update);
+    }
+
+    private void applyPendingUpdates() {
+        List<MsgSpellSync> updates = new ArrayList<>(pendingUpdates);
+        pendingUpdates.clear();
+
+        for (MsgSpellSync update : updates) {
+            if (!update.full() && update.sequence() <= sequence) {
+                continue;
+            }
+            sequence = update.sequence();
+
+            if (update.full()) {
+                Set<UUID> incoming = new HashSet<>();
+                update.changes().forEach(change -> incoming.add(change.id()));
+                synced.keySet().forEach(id -> {
+                    if (!incoming.contains(id)) {
+                        ParticleHandle.detach(id);
+                    }
+                });
+                synced.keySet().retainAll(incoming);
+                spells.retainReferences(incoming);
+            }
+
+            update.removals().forEach(id -> {
+                synced.remove(id);
+                spells.removeReference(id);
+                ParticleHandle.detach(id);
+            });
+            // changes are listed newest first, whilst the set adds new references to the front
+            Lists.reverse(update.changes()).forEach(change -> {
+                NbtCompound values = change.apply(synced.get(change.id()));
+                synced.put(change.id(), values);
+                spells.updateReference(change.id(), values);
+            });
         }
     }
 
@@ -147,7 +377,7 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
     @Override
     public void fromNBT(NbtCompound compound) {
         spells.fromNbt(compound.getCompound("spells"));
-        owner.asEntity().getDataTracker().set(param, spells.toNbt());
+        indexDirty = true;
     }
 
     public interface UpdateCallback {
@@ -1,6 +1,7 @@
 package com.minelittlepony.unicopia.network.datasync;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,10 @@ public class NetworkedReferenceSet<T> {
         return ids.contains(id);
     }
 
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
     public Stream<T> getReferences() {
         return ids.stream().map(id -> values.get(id))
                 .map(a -> a.getReference())
@@ -81,7 +86,7 @@ public class NetworkedReferenceSet<T> {
         }
     }
 
-    private void removeReference(UUID id) {
+    public void removeReference(UUID id) {
         dirty |= ids.remove(id);
         NetworkedReference<T> i = values.remove(id);
         if (i != null) {
@@ -95,6 +100,32 @@ public class NetworkedReferenceSet<T> {
         }
     }
 
+    /**
+     * Adds or updates a single reference from its serialised form, leaving every other reference untouched.
+     */
+    public void updateReference(UUID id, NbtCompound comp) {
+        if (reading) {
+            return;
+        }
+        reading = true;
+        try {
+            NetworkedReference<T> i = addReference(id);
+            i.fromNbt(comp);
+            if (i.getReference().isEmpty()) {
+                removeReference(id);
+            }
+        } finally {
+            reading = false;
+        }
+    }
+
+    /**
+     * Removes every reference whose id is not in the given collection.
+     */
+    public void retainReferences(Collection<UUID> retained) {
+        ids.stream().filter(id -> !retained.contains(id)).toList().forEach(this::removeReference);
+    }
+
     public boolean fromNbt(NbtCompound comp) {
         if (reading) {
             return false;
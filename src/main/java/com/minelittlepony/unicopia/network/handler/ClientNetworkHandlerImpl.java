@@ -6,6 +6,7 @@ import com.minelittlepony.unicopia.InteractionManager;
 import com.minelittlepony.unicopia.Owned;
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.ability.data.tree.TreeTypes;
+import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.client.ClientBlockDestructionManager;
@@ -16,12 +17,15 @@ import com.minelittlepony.unicopia.client.gui.spellbook.SpellbookChapterList.Cha
 import com.minelittlepony.unicopia.entity.UEntities;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.network.*;
+import com.minelittlepony.unicopia.network.datasync.EffectSync;
 
+import net.minecraft.block.Block;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.Identifier;
+import net.minecraft.world.WorldEvents;
 
 public class ClientNetworkHandlerImpl {
     private final MinecraftClient client = MinecraftClient.getInstance();
@@ -33,6 +37,9 @@ public class ClientNetworkHandlerImpl {
         Channel.CANCEL_PLAYER_ABILITY.receiver().addPersistentListener(this::handleCancelAbility);
         Channel.UNLOCK_TRAITS.receiver().addPersistentListener(this::handleUnlockTraits);
         Channel.SERVER_RESOURCES_SEND.receiver().addPersistentListener(this::handleServerResources);
+        Channel.SERVER_SPELL_SYNC.receiver().addPersistentListener(this::handleSpellSync);
+        Channel.SERVER_PARTICLE_BURST.receiver().addPersistentListener(this::handleParticleBurst);
+        Channel.SERVER_SHOCKWAVE.receiver().addPersistentListener(this::handleShockwave);
     }
 
     private void handleTribeScreen(PlayerEntity sender, MsgTribeSelect packet) {
@@ -66,9 +73,7 @@ public class ClientNetworkHandlerImpl {
     private void handleBlockDestruction(PlayerEntity sender, MsgBlockDestruction packet) {
         ClientBlockDestructionManager destr = ((ClientBlockDestructionManager.Source)client.worldRenderer).getDestructionManager();
 
-        packet.destructions().forEach((i, d) -> {
-            destr.setBlockDestruction(i, d);
-        });
+        packet.forEach(destr::setBlockDestruction);
     }
 
     private void handleCancelAbility(PlayerEntity sender, MsgCancelPlayerAbility packet) {
@@ -82,6 +87,32 @@ public class ClientNetworkHandlerImpl {
         }
     }
 
+    private void handleSpellSync(PlayerEntity sender, MsgSpellSync packet) {
+        if (client.world == null) {
+            return;
+        }
+        Caster.of(client.world.getEntityById(packet.entityId())).map(Caster::getSpellSlot).ifPresent(slot -> {
+            if (slot instanceof EffectSync sync) {
+                sync.receive(packet);
+            }
+        });
+    }
+
+    private void handleParticleBurst(PlayerEntity sender, MsgParticleBurst packet) {
+        if (client.world == null) {
+            return;
+        }
+        packet.forEach((effect, x, y, z) -> client.world.addParticle(effect, x, y, z, 0, 0, 0));
+    }
+
+    private void handleShockwave(PlayerEntity sender, MsgShockwave packet) {
+        ClientWorld world = client.world;
+        if (world == null) {
+            return;
+        }
+        packet.forEach(pos -> world.syncWorldEvent(WorldEvents.BLOCK_BROKEN, pos, Block.getRawIdFromState(world.getBlockState(pos))));
+    }
+
     @SuppressWarnings("unchecked")
     private void handleServerResources(PlayerEntity sender, MsgServerResources packet) {
         SpellTraits.load(packet.traits());
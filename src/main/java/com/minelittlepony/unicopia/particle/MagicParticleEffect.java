@@ -1,6 +1,7 @@
 package com.minelittlepony.unicopia.particle;
 
 import java.util.Locale;
+import java.util.Objects;
 
 import org.joml.Vector3f;
 
@@ -84,4 +85,14 @@ public class MagicParticleEffect implements ParticleEffect {
         return String.format(Locale.ROOT, "%s %.2f %.2f %.2f", Registries.PARTICLE_TYPE.getId(getType()), color.x, color.y, color.z);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MagicParticleEffect e && e.tinted == tinted && e.color.equals(color);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tinted, color);
+    }
+
 }
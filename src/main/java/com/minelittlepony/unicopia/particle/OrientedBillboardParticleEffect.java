@@ -1,6 +1,7 @@
 package com.minelittlepony.unicopia.particle;
 
 import java.util.Locale;
+import java.util.Objects;
 
 import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
@@ -73,4 +74,14 @@ public class OrientedBillboardParticleEffect implements ParticleEffect {
         return String.format(Locale.ROOT, "%s %b %.2f %.2f", Registries.PARTICLE_TYPE.getId(getType()), fixed, yaw, pitch);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof OrientedBillboardParticleEffect e && e.type == type && e.fixed == fixed && e.yaw == yaw && e.pitch == pitch;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, fixed, yaw, pitch);
+    }
+
 }
@@ -2,12 +2,17 @@ package com.minelittlepony.unicopia.particle;
 
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.ability.magic.Caster;
 
 import net.fabricmc.api.EnvType;
@@ -18,6 +23,11 @@ import net.minecraft.world.World;
 
 /**
  * A connection class for updating and persisting an attached particle effect.
+ * <p>
+ * Particles spawned on the client are kept in a registry keyed by the spell they belong to,
+ * so a spell that's reloaded can pick its particles back up rather than spawning new ones.
+ * The registry holds a limited number of spells' particles. Once it's full, a new spell takes the place of the spell
+ * that was updated longest ago, unless every spell is still being updated, in which case it goes without until one stops.
  */
 public class ParticleHandle {
     private final Map<String, Attachment> loadedEffects = new WeakHashMap<>();
@@ -27,9 +37,14 @@ public class ParticleHandle {
     }
 
     public Optional<Attachment> update(UUID id, String partName, ParticleSource<?> source, Consumer<ParticleSpawner> constructor) {
+        World world = source.asEntity().getWorld();
+        boolean client = world.isClient;
+        if (client) {
+            ClientHandle.touch(id, world.getTime());
+        }
         return get(partName).or(() -> {
-            if (source.asEntity().getWorld().isClient) {
-                new ClientHandle().addParticle(id, partName, source, constructor);
+            if (client) {
+                ClientHandle.addParticle(this, id, partName, source, constructor);
             }
             return get(partName);
         });
@@ -44,43 +59,118 @@ public class ParticleHandle {
         return Optional.ofNullable(loadedEffects.get(partName)).filter(Attachment::isStillAlive);
     }
 
-    private final class ClientHandle {
-        private static final Map<UUID, Map<String, Entry>> SPAWNED_PARTICLES = new HashMap<>();
+    /**
+     * Detaches every particle spawned on the client for the given spell.
+     * Called when the spell is removed from its caster.
+     */
+    public static void detach(UUID id) {
+        ClientHandle.remove(id);
+    }
+
+    private static final class ClientHandle {
+        private static final Map<UUID, SpellParticles> SPAWNED_PARTICLES = new LinkedHashMap<>(16, 0.75F, true);
+
+        private static WeakReference<World> world = new WeakReference<>(null);
 
-        private Particle pp;
+        static synchronized void touch(UUID id, long time) {
+            SpellParticles spell = SPAWNED_PARTICLES.get(id);
+            if (spell != null) {
+                spell.lastTouched = time;
+            }
+        }
+
+        static synchronized void remove(UUID id) {
+            SpellParticles spell = SPAWNED_PARTICLES.remove(id);
+            if (spell != null) {
+                spell.detach();
+            }
+        }
 
         @Environment(EnvType.CLIENT)
-        private void addParticle(UUID id, String partName, ParticleSource<?> source, Consumer<ParticleSpawner> constructor) {
-            SPAWNED_PARTICLES.values().removeIf(set -> {
-                set.values().removeIf(particle -> particle.get() == null);
-                return set.isEmpty();
-            });
+        static synchronized void addParticle(ParticleHandle handle, UUID id, String partName, ParticleSource<?> source, Consumer<ParticleSpawner> constructor) {
+            World currentWorld = MinecraftClient.getInstance().world;
+            if (world.get() != currentWorld) {
+                SPAWNED_PARTICLES.clear();
+                world = new WeakReference<>(currentWorld);
+            }
 
-            Entry p = SPAWNED_PARTICLES.computeIfAbsent(id, i -> new WeakHashMap<>()).computeIfAbsent(partName, i -> {
-                constructor.accept((effect, pos, vel) -> {
-                    pp = MinecraftClient.getInstance().particleManager.addParticle(effect, pos.x, pos.y, pos.z, vel.x, vel.y, vel.z);
-                    if (pp instanceof Attachment && source instanceof Caster<?>) {
-                        ((Attachment) pp).attach(new Link(id, (Caster<?>)source));
-                    }
-                });
-                return new Entry(new WeakReference<>(MinecraftClient.getInstance().world), new WeakReference<>(pp));
-            });
+            SpellParticles spell = SPAWNED_PARTICLES.get(id);
+            if (spell == null) {
+                if (!makeRoom(currentWorld.getTime())) {
+                    return;
+                }
+                spell = new SpellParticles();
+                spell.lastTouched = currentWorld.getTime();
+                SPAWNED_PARTICLES.put(id, spell);
+            }
+            Map<String, Entry> parts = spell.parts;
 
-            if (p.get() instanceof Attachment) {
-                loadedEffects.put(partName, (Attachment)p.get());
+            Entry p = parts.get(partName);
+            if (p == null || p.get() == null) {
+                p = spawn(id, source, constructor);
+                parts.put(partName, p);
+            }
+
+            if (p.get() instanceof Attachment attachment) {
+                handle.loadedEffects.put(partName, attachment);
             }
         }
 
-        record Entry (WeakReference<World> world, WeakReference<Particle> particle) {
-            public Particle get() {
-                if (world.get() == null || world.get() != MinecraftClient.getInstance().world) {
-                    return null;
+        @Environment(EnvType.CLIENT)
+        private static Entry spawn(UUID id, ParticleSource<?> source, Consumer<ParticleSpawner> constructor) {
+            Particle[] spawned = new Particle[1];
+            Link[] link = new Link[1];
+            constructor.accept((effect, pos, vel) -> {
+                spawned[0] = MinecraftClient.getInstance().particleManager.addParticle(effect, pos.x, pos.y, pos.z, vel.x, vel.y, vel.z);
+                if (spawned[0] instanceof Attachment attachment && source instanceof Caster<?> caster) {
+                    link[0] = new Link(id, caster);
+                    attachment.attach(link[0]);
                 }
+            });
+            return new Entry(new WeakReference<>(spawned[0]), link[0]);
+        }
+
+        /**
+         * Makes room for another spell's particles by detaching those of the spell that was updated longest ago.
+         * Spells that were updated this tick or the last are still being shown, so they're never evicted.
+         *
+         * @return True if there is room for another spell.
+         */
+        private static boolean makeRoom(long time) {
+            int max = Math.max(1, Unicopia.getConfig().maxAttachedParticles.get());
+            Iterator<SpellParticles> iter = SPAWNED_PARTICLES.values().iterator();
+            while (SPAWNED_PARTICLES.size() >= max && iter.hasNext()) {
+                SpellParticles eldest = iter.next();
+                if (time - eldest.lastTouched <= 1) {
+                    return false;
+                }
+                eldest.detach();
+                iter.remove();
+            }
+            return SPAWNED_PARTICLES.size() < max;
+        }
+
+        private static final class SpellParticles {
+            private final Map<String, Entry> parts = new HashMap<>();
+            private long lastTouched;
+
+            void detach() {
+                parts.values().forEach(Entry::detach);
+            }
+        }
 
+        record Entry (WeakReference<Particle> particle, @Nullable Link link) {
+            public Particle get() {
                 Particle particle = this.particle.get();
 
                 return particle == null || !particle.isAlive() ? null : particle;
             }
+
+            public void detach() {
+                if (link != null) {
+                    link.detached = true;
+                }
+            }
         }
     }
 
@@ -102,17 +192,35 @@ public class ParticleHandle {
     }
 
     public static final class Link {
+        /**
+         * How often, in ticks, to check that the caster still has the spell.
+         * Spells that are removed normally detach their particles straight away, so this only catches the ones that aren't.
+         */
+        private static final int CHECK_INTERVAL = 10;
+
         private Optional<WeakReference<Caster<?>>> caster = Optional.empty();
         private UUID effect;
 
+        private boolean detached;
+        private int lastChecked = -CHECK_INTERVAL;
+
         private Link(UUID effect, Caster<?> caster) {
             this.caster = Optional.of(new WeakReference<>(caster));
             this.effect = effect;
         }
 
         public Optional<Caster<?>> get() {
-            caster = caster.filter(r -> r.get() != null && r.get().getSpellSlot().contains(effect) && r.get().asEntity().isAlive());
+            caster = caster.filter(r -> !detached && r.get() != null && r.get().asEntity().isAlive() && isStillCast(r.get()));
             return caster.map(WeakReference::get);
         }
+
+        private boolean isStillCast(Caster<?> caster) {
+            int age = caster.asEntity().age;
+            if (age >= lastChecked && age - lastChecked < CHECK_INTERVAL) {
+                return true;
+            }
+            lastChecked = age;
+            return caster.getSpellSlot().contains(effect);
+        }
     }
 }
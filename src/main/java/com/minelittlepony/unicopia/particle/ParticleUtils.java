@@ -1,10 +1,10 @@
 package com.minelittlepony.unicopia.particle;
 
+import com.minelittlepony.unicopia.server.world.ParticleBurstQueue;
 import com.minelittlepony.unicopia.util.shape.*;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.particle.ParticleEffect;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
@@ -36,8 +36,13 @@ public interface ParticleUtils {
     }
 
     static void spawnParticle(World world, ParticleEffect effect, double x, double y, double z, double vX, double vY, double vZ) {
-        if (world instanceof ServerWorld sw) {
-            sw.spawnParticles(effect, x, y, z, 1, vX, vY, vZ, 0);
+        if (!world.isClient) {
+            // particles spawned by the server are sent without velocity, the velocity instead spreads out where they appear
+            ParticleBurstQueue.get(world).add(effect,
+                    x + world.random.nextGaussian() * vX,
+                    y + world.random.nextGaussian() * vY,
+                    z + world.random.nextGaussian() * vZ
+            );
         } else {
             world.addParticle(effect, x, y, z, vX, vY, vZ);
         }
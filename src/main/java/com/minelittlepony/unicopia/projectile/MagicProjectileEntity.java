@@ -57,11 +57,10 @@ public class MagicProjectileEntity extends ThrownItemEntity implements Caster<Ma
     private static final TrackedData<Float> DAMAGE = DataTracker.registerData(MagicProjectileEntity.class, TrackedDataHandlerRegistry.FLOAT);
     private static final TrackedData<Float> GRAVITY = DataTracker.registerData(MagicProjectileEntity.class, TrackedDataHandlerRegistry.FLOAT);
     private static final TrackedData<Boolean> HYDROPHOBIC = DataTracker.registerData(MagicProjectileEntity.class, TrackedDataHandlerRegistry.BOOLEAN);
-    private static final TrackedData<NbtCompound> EFFECT = DataTracker.registerData(MagicProjectileEntity.class, TrackedDataHandlerRegistry.NBT_COMPOUND);
 
     public static final byte PROJECTILE_COLLISSION = 3;
 
-    private final EffectSync effectDelegate = new EffectSync(this, EFFECT);
+    private final EffectSync effectDelegate = new EffectSync(this);
 
     private final EntityPhysics<MagicProjectileEntity> physics = new EntityPhysics<>(this, GRAVITY, false);
 
@@ -85,7 +84,6 @@ public class MagicProjectileEntity extends ThrownItemEntity implements Caster<Ma
         super.initDataTracker();
         getDataTracker().startTracking(GRAVITY, 1F);
         getDataTracker().startTracking(DAMAGE, 0F);
-        getDataTracker().startTracking(EFFECT, new NbtCompound());
         getDataTracker().startTracking(HYDROPHOBIC, false);
     }
 
@@ -0,0 +1,159 @@
+package com.minelittlepony.unicopia.server.world;
+
+import com.minelittlepony.unicopia.entity.player.MeteorlogicalUtil;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.World;
+
+/**
+ * Cached terrain surface used to work out the airflow around flying players, sampled once for every 4x4 column of blocks.
+ * <p>
+ * Cells are filled a whole chunk at a time the first time anything in that chunk is read,
+ * and dropped when a block in the chunk changes or once they are a few seconds old, whichever comes first.
+ * Only the server hears about block changes, so on the client the age limit is what keeps the field up to date.
+ * Reads are interpolated between the four nearest cells so the field stays smooth across cell boundaries.
+ */
+public class AirflowField {
+    private static final int CELL_SIZE = 4;
+    private static final int CELL_SHIFT = 2;
+    private static final int CELL_MASK = (16 / CELL_SIZE) - 1;
+    private static final int CELLS_PER_CHUNK = (16 / CELL_SIZE) * (16 / CELL_SIZE);
+
+    private static final int EXPIRY_TICKS = 100;
+
+    private static final int SURFACE = 0;
+    private static final int HEAT = 1;
+    private static final int SOLAR_HEAT = 2;
+
+    private final World world;
+
+    private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+
+    private final Object locker = new Object();
+
+    private long lastPruneTime;
+
+    /**
+     * Distance from a position down to the terrain surface below it, or zero if the position is below the surface.
+     */
+    private final WeatherConditions.Plane altitudeField = (world, pos) -> getAltitude(pos);
+    /**
+     * Updraft at a position from the heat of the surface below it.
+     */
+    private final WeatherConditions.Plane thermalField = (world, pos) -> {
+        float factor = 1 - Math.min(WeatherConditions.MAX_UPDRAFT_HEIGHT, getAltitude(pos)) / WeatherConditions.MAX_UPDRAFT_HEIGHT;
+        float heat = interpolate(HEAT, pos.getX(), pos.getZ()) + interpolate(SOLAR_HEAT, pos.getX(), pos.getZ()) * MeteorlogicalUtil.getSunIntensity(world);
+        return factor * heat;
+    };
+
+    AirflowField(World world) {
+        this.world = world;
+    }
+
+    public WeatherConditions.Plane getAltitudeField() {
+        return altitudeField;
+    }
+
+    public WeatherConditions.Plane getThermalField() {
+        return thermalField;
+    }
+
+    /**
+     * Checks whether a position is above the terrain surface, and so can be served from this field.
+     */
+    public boolean isAboveSurface(BlockPos pos) {
+        return pos.getY() > interpolate(SURFACE, pos.getX(), pos.getZ());
+    }
+
+    /**
+     * Called when a block changes to discard the cells for the chunk it is in.
+     */
+    public void onBlockChanged(BlockPos pos) {
+        synchronized (locker) {
+            if (!chunks.isEmpty()) {
+                chunks.remove(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())));
+            }
+        }
+    }
+
+    public int getChunkCount() {
+        synchronized (locker) {
+            return chunks.size();
+        }
+    }
+
+    private float getAltitude(BlockPos pos) {
+        return Math.max(0, pos.getY() - interpolate(SURFACE, pos.getX(), pos.getZ()));
+    }
+
+    private float interpolate(int layer, int x, int z) {
+        float fx = (x - CELL_SIZE / 2) / (float)CELL_SIZE;
+        float fz = (z - CELL_SIZE / 2) / (float)CELL_SIZE;
+        int cellX = MathHelper.floor(fx);
+        int cellZ = MathHelper.floor(fz);
+        float tx = fx - cellX;
+        float tz = fz - cellZ;
+
+        synchronized (locker) {
+            return MathHelper.lerp(tz,
+                    MathHelper.lerp(tx, getCell(layer, cellX, cellZ), getCell(layer, cellX + 1, cellZ)),
+                    MathHelper.lerp(tx, getCell(layer, cellX, cellZ + 1), getCell(layer, cellX + 1, cellZ + 1))
+            );
+        }
+    }
+
+    private float getCell(int layer, int cellX, int cellZ) {
+        return getChunk(cellX >> CELL_SHIFT, cellZ >> CELL_SHIFT).values[layer][(cellX & CELL_MASK) | ((cellZ & CELL_MASK) << CELL_SHIFT)];
+    }
+
+    private Chunk getChunk(int x, int z) {
+        long time = world.getTime();
+        prune(time);
+
+        long key = ChunkPos.toLong(x, z);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk(x, z);
+            // chunks that aren't loaded yet are sampled as empty, so don't hold on to them
+            if (world.isChunkLoaded(x, z)) {
+                chunks.put(key, chunk);
+            }
+        }
+        return chunk;
+    }
+
+    private void prune(long time) {
+        if (time == lastPruneTime) {
+            return;
+        }
+        lastPruneTime = time;
+        chunks.values().removeIf(chunk -> time - chunk.created > EXPIRY_TICKS);
+    }
+
+    private final class Chunk {
+        private final float[][] values = new float[3][CELLS_PER_CHUNK];
+
+        private final long created = world.getTime();
+
+        Chunk(int chunkX, int chunkZ) {
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (int i = 0; i < CELLS_PER_CHUNK; i++) {
+                int x = ChunkSectionPos.getBlockCoord(chunkX) + (i & CELL_MASK) * CELL_SIZE + CELL_SIZE / 2;
+                int z = ChunkSectionPos.getBlockCoord(chunkZ) + (i >> CELL_SHIFT) * CELL_SIZE + CELL_SIZE / 2;
+                int surface = world.getTopY(Heightmap.Type.WORLD_SURFACE, x, z) - 1;
+                pos.set(x, surface, z);
+
+                float heat = (float)WeatherConditions.getMaterialSurfaceTemperature(world.getBlockState(pos), 0);
+                values[SURFACE][i] = surface;
+                values[HEAT][i] = heat;
+                values[SOLAR_HEAT][i] = (float)WeatherConditions.getMaterialSurfaceTemperature(world.getBlockState(pos), 1) - heat;
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -10,8 +9,6 @@ import com.minelittlepony.unicopia.network.Channel;
 import com.minelittlepony.unicopia.network.MsgBlockDestruction;
 import com.minelittlepony.unicopia.util.Tickable;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -26,7 +23,27 @@ public class BlockDestructionManager implements Tickable {
     public static final int UNSET_DAMAGE = -1;
     public static final int MAX_DAMAGE = 10;
 
-    private final WorldOverlay<Destruction> chunks;
+    /**
+     * Damage decays by one every {@link #DESTRUCTION_COOLDOWN} ticks after it was last changed, and is removed once it drops below zero.
+     */
+    private static final WorldOverlay.ValueType DESTRUCTION = new WorldOverlay.ValueType() {
+        @Override
+        public int tick(byte amount) {
+            return amount >= 0 ? amount - 1 : UNSET_DAMAGE;
+        }
+
+        @Override
+        public int getTickDelay(byte amount) {
+            return DESTRUCTION_COOLDOWN;
+        }
+
+        @Override
+        public byte readLegacy(NbtCompound compound) {
+            return toValue(compound.getFloat("destruction"));
+        }
+    };
+
+    private final WorldOverlay chunks;
 
     public static Supplier<BlockDestructionManager> create(World world) {
         return Suppliers.memoize(() -> new BlockDestructionManager(world));
@@ -37,17 +54,15 @@ public class BlockDestructionManager implements Tickable {
     }
 
     private BlockDestructionManager(World world) {
-        this.chunks = WorldOverlay.getOverlay(world, ID, w -> new WorldOverlay<>(world, Destruction::new, this::sendUpdates));
+        this.chunks = WorldOverlay.getOverlay(world, ID, DESTRUCTION, this::sendUpdates);
     }
 
     public float getBlockDestruction(BlockPos pos) {
-        Destruction destr = chunks.getState(pos);
-        return destr == null ? UNSET_DAMAGE : destr.amount;
+        return chunks.getValue(pos, UNSET_DAMAGE);
     }
 
     public void setBlockDestruction(BlockPos pos, float amount) {
-        chunks.getOrCreateState(pos).set(amount);
-        chunks.markDirty();
+        chunks.setValue(pos, toValue(amount));
     }
 
     public float damageBlock(BlockPos pos, float amount) {
@@ -60,8 +75,9 @@ public class BlockDestructionManager implements Tickable {
     }
 
     public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newstate) {
+        // only blocks that have been damaged need clearing, so don't create anything for the rest
         if (oldState.getBlock() != newstate.getBlock()) {
-            setBlockDestruction(pos, UNSET_DAMAGE);
+            chunks.setValueIfPresent(pos, (byte)UNSET_DAMAGE);
         }
     }
 
@@ -70,66 +86,20 @@ public class BlockDestructionManager implements Tickable {
         chunks.tick();
     }
 
-    private void sendUpdates(Long2ObjectMap<Destruction> destructions, List<ServerPlayerEntity> players) {
-        Long2ObjectOpenHashMap<Float> values = new Long2ObjectOpenHashMap<>();
-
-        destructions.forEach((blockPos, item) -> {
-            if (item.dirty) {
-                item.dirty = false;
-                values.put(blockPos.longValue(), (Float)item.amount);
-            }
-        });
-
-        MsgBlockDestruction msg = new MsgBlockDestruction(values);
-
-        if (msg.toBuffer().writerIndex() > 1048576) {
-            throw new IllegalStateException("Payload may not be larger than 1048576 bytes. Here's what we were trying to send: ["
-                    + values.size() + "]\n"
-                    + Arrays.toString(values.values().stream().mapToDouble(Float::doubleValue).toArray()));
-        }
-
-        players.forEach(player -> {
-            if (player instanceof ServerPlayerEntity) {
-                Channel.SERVER_BLOCK_DESTRUCTION.sendToPlayer(msg, player);
-            }
-        });
+    public WorldOverlay getOverlay() {
+        return chunks;
     }
 
-    private class Destruction implements WorldOverlay.State {
-        float amount = UNSET_DAMAGE;
-        int age = DESTRUCTION_COOLDOWN;
-        boolean dirty;
-
-        @Override
-        public boolean tick() {
-            if (age-- > 0) {
-                return false;
-            }
-
-            if (amount >= 0) {
-                set(amount - 1);
-            }
-            return amount < 0 || age-- <= 0;
-        }
-
-        void set(float amount) {
-            this.age = DESTRUCTION_COOLDOWN;
-            this.amount = amount >= 0 && amount < MAX_DAMAGE ? amount : UNSET_DAMAGE;
-            this.dirty = true;
-        }
-
-        @Override
-        public void toNBT(NbtCompound compound) {
-            compound.putFloat("destruction", amount);
-            compound.putInt("age", age);
+    private void sendUpdates(long[] positions, byte[] values, int count, List<ServerPlayerEntity> players) {
+        for (MsgBlockDestruction msg : MsgBlockDestruction.create(positions, values, count)) {
+            players.forEach(player -> {
+                Channel.SERVER_BLOCK_DESTRUCTION.sendToPlayer(msg, player);
+            });
         }
+    }
 
-        @Override
-        public void fromNBT(NbtCompound compound) {
-            amount = compound.getFloat("destruction");
-            age = compound.getInt("age");
-            dirty = true;
-        }
+    private static byte toValue(float amount) {
+        return amount >= 0 && amount < MAX_DAMAGE ? (byte)amount : UNSET_DAMAGE;
     }
 
     public interface Source {
@@ -0,0 +1,72 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+
+/**
+ * Registry of the entities in a world that add collision shapes beyond their own bounding box,
+ * such as air balloons and casters disguised as something solid.
+ * <p>
+ * Entities re-register themselves every tick whilst they qualify, and expire on their own once they stop.
+ * Collision queries read a snapshot of the current entries without locking, so when there are none
+ * (which is almost always) checking costs nothing more than reading an empty array.
+ */
+public class CollidableIndex {
+    private static final int EXPIRY_TICKS = 20;
+    private static final Entity[] EMPTY = new Entity[0];
+
+    private final World world;
+
+    private final Map<Entity, Long> entries = new HashMap<>();
+
+    private volatile Entity[] snapshot = EMPTY;
+
+    private final Object locker = new Object();
+
+    private volatile long lastPruneTime;
+
+    public static CollidableIndex get(World world) {
+        return Ether.get(world).getCollidableIndex();
+    }
+
+    CollidableIndex(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Adds or refreshes an entity with additional collision shapes.
+     */
+    public void put(Entity entity) {
+        synchronized (locker) {
+            if (entries.put(entity, world.getTime()) == null) {
+                snapshot = entries.keySet().toArray(EMPTY);
+            }
+        }
+    }
+
+    /**
+     * Gets every entity currently registered. The returned array must not be modified.
+     */
+    public Entity[] getEntities() {
+        long time = world.getTime();
+        if (time != lastPruneTime) {
+            synchronized (locker) {
+                prune(time);
+            }
+        }
+        return snapshot;
+    }
+
+    private void prune(long time) {
+        if (time == lastPruneTime) {
+            return;
+        }
+        lastPruneTime = time;
+        if (entries.entrySet().removeIf(entry -> entry.getKey().isRemoved() || time - entry.getValue() > EXPIRY_TICKS)) {
+            snapshot = entries.keySet().toArray(EMPTY);
+        }
+    }
+}
@@ -15,13 +15,20 @@ public class DragonBreathStore extends PersistentState {
     private static final long PURGE_INTERVAL = 1000 * 60 * 60; // 1 hour
     private static final long MAX_MESSAGE_HOLD_TIME = PURGE_INTERVAL * 24; // 24 hours
     private static final Identifier ID = Unicopia.id("dragon_breath");
+    private static final WorldStateSlots.Slot<DragonBreathStore> SLOT = WorldStateSlots.register(world -> WorldOverlay.getPersistableStorage(world, ID, DragonBreathStore::new, DragonBreathStore::new));
 
     public static DragonBreathStore get(World world) {
-        return WorldOverlay.getPersistableStorage(world, ID, DragonBreathStore::new, DragonBreathStore::new);
+        return SLOT.get(world);
     }
 
     private final Map<String, List<Entry>> payloads = new HashMap<>();
 
+    /**
+     * Whether anybody has something waiting to be delivered to them.
+     * Read without locking so entities can check it cheaply before looking up their own name.
+     */
+    private volatile boolean hasPayloads;
+
     private final Object locker = new Object();
 
     DragonBreathStore(World world, NbtCompound compound) {
@@ -54,6 +61,25 @@ public class DragonBreathStore extends PersistentState {
         }
     }
 
+    /**
+     * Checks whether anything is waiting to be delivered to anyone in this world.
+     */
+    public boolean hasPayloads() {
+        return hasPayloads;
+    }
+
+    /**
+     * Checks whether anything is waiting to be delivered to the given recipient.
+     */
+    public boolean hasPayloads(String recipient) {
+        if (!hasPayloads) {
+            return false;
+        }
+        synchronized (locker) {
+            return payloads.containsKey(recipient);
+        }
+    }
+
     public List<Entry> popEntries(String recipient) {
         synchronized (locker) {
             List<Entry> entries = doPurge().get(recipient);
@@ -70,6 +96,10 @@ public class DragonBreathStore extends PersistentState {
                 }
                 return false;
             });
+            if (entries.isEmpty()) {
+                payloads.remove(recipient);
+                hasPayloads = !payloads.isEmpty();
+            }
             return collected;
         }
     }
@@ -109,6 +139,7 @@ public class DragonBreathStore extends PersistentState {
 
     private void put(String recipient, Entry entry) {
         payloads.computeIfAbsent(recipient, id -> new ArrayList<>()).add(entry);
+        hasPayloads = true;
     }
 
     private Map<String, List<Entry>> doPurge() {
@@ -118,6 +149,7 @@ public class DragonBreathStore extends PersistentState {
                entry.getValue().removeIf(e -> e.created < now - MAX_MESSAGE_HOLD_TIME);
                return entry.getValue().isEmpty();
             });
+            hasPayloads = !payloads.isEmpty();
         }
         return payloads;
     }
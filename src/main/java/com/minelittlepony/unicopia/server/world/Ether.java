@@ -1,24 +1,31 @@
 package com.minelittlepony.unicopia.server.world;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.ability.data.tree.TreeShapeCache;
 import com.minelittlepony.unicopia.ability.magic.CasterView;
+import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
 import com.minelittlepony.unicopia.ability.magic.Caster;
+import com.minelittlepony.unicopia.ability.magic.spell.Spell;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.entity.EntityReference;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 
 import net.minecraft.nbt.*;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
 public class Ether extends PersistentState implements CasterView {
     private static final Identifier ID = Unicopia.id("ether");
+    private static final WorldStateSlots.Slot<Ether> SLOT = WorldStateSlots.register(world -> WorldOverlay.getPersistableStorage(world, ID, Ether::new, Ether::new));
 
     public static Ether get(World world) {
-        return WorldOverlay.getPersistableStorage(world, ID, Ether::new, Ether::new);
+        return SLOT.get(world);
     }
 
     private final Map<Identifier, Set<Entry>> advertisingEndpoints = new HashMap<>();
@@ -27,6 +34,17 @@ public class Ether extends PersistentState implements CasterView {
 
     private final World world;
 
+    private final SpellIndex spellIndex;
+    private final ProtectionRegions protectionRegions;
+    private final HydrophobicRegions hydrophobicRegions;
+    private final SpellSyncQueue spellSyncQueue = new SpellSyncQueue();
+    private final WornItemIndex wornItemIndex;
+    private final TargetIndex targetIndex;
+    private final TreeShapeCache treeShapeCache;
+    private final ParticleBurstQueue particleBurstQueue;
+    private final CollidableIndex collidableIndex;
+    private final ShockwaveQueue shockwaveQueue;
+
     Ether(World world, NbtCompound compound) {
         this(world);
         compound.getKeys().forEach(key -> {
@@ -44,6 +62,15 @@ public class Ether extends PersistentState implements CasterView {
 
     Ether(World world) {
         this.world = world;
+        this.spellIndex = new SpellIndex(world);
+        this.protectionRegions = new ProtectionRegions(world, spellIndex);
+        this.hydrophobicRegions = new HydrophobicRegions(world);
+        this.wornItemIndex = new WornItemIndex(world);
+        this.targetIndex = new TargetIndex(world);
+        this.treeShapeCache = new TreeShapeCache(world);
+        this.particleBurstQueue = new ParticleBurstQueue(world);
+        this.collidableIndex = new CollidableIndex(world);
+        this.shockwaveQueue = new ShockwaveQueue(world);
     }
 
     @Override
@@ -119,6 +146,58 @@ public class Ether extends PersistentState implements CasterView {
         }
     }
 
+    public SpellIndex getSpellIndex() {
+        return spellIndex;
+    }
+
+    public ProtectionRegions getProtectionRegions() {
+        return protectionRegions;
+    }
+
+    public HydrophobicRegions getHydrophobicRegions() {
+        return hydrophobicRegions;
+    }
+
+    public SpellSyncQueue getSpellSyncQueue() {
+        return spellSyncQueue;
+    }
+
+    public WornItemIndex getWornItemIndex() {
+        return wornItemIndex;
+    }
+
+    public TargetIndex getTargetIndex() {
+        return targetIndex;
+    }
+
+    public TreeShapeCache getTreeShapeCache() {
+        return treeShapeCache;
+    }
+
+    public ParticleBurstQueue getParticleBurstQueue() {
+        return particleBurstQueue;
+    }
+
+    public CollidableIndex getCollidableIndex() {
+        return collidableIndex;
+    }
+
+    public ShockwaveQueue getShockwaveQueue() {
+        return shockwaveQueue;
+    }
+
+    @Override
+    public <S extends Spell> Stream<Map.Entry<Caster<?>, S>> findAllSpellsInRange(BlockPos pos, double radius, SpellPredicate<S> type) {
+        if (world.isClient || !(type instanceof SpellType<?> spellType)) {
+            return CasterView.super.findAllSpellsInRange(pos, radius, type);
+        }
+        return spellIndex.findAllCastersInRange(null, Vec3d.ofCenter(pos), radius, spellType).stream().flatMap(caster -> {
+            return caster.getSpellSlot().stream(type, false).map(spell -> {
+                return Map.entry(caster, spell);
+            });
+        });
+    }
+
     @Override
     public World getWorld() {
         return world;
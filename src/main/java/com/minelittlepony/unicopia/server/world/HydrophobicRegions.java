@@ -0,0 +1,239 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.fluid.Fluid;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+
+/**
+ * Registry of the spheres currently held clear of fluids by hydrophobic spells, bucketed by chunk column.
+ * <p>
+ * Spells re-register their sphere every tick they are active. Spheres that stop being refreshed
+ * (because their caster was unloaded) expire on their own.
+ * <p>
+ * Also records which chunk sections inside each sphere have had fluid placed in them,
+ * so the owning spell only has to re-check those sections instead of its whole area.
+ * Fluid placed by the spells themselves, such as when restoring what they cleared, is not recorded.
+ */
+public class HydrophobicRegions {
+    private static final int EXPIRY_TICKS = 20;
+
+    private final World world;
+
+    private final Map<UUID, Region> regions = new HashMap<>();
+    private final Long2ObjectMap<List<Region>> chunks = new Long2ObjectOpenHashMap<>();
+
+    private final Object locker = new Object();
+
+    private long lastPruneTime;
+
+    /**
+     * Greater than zero whilst a spell is moving fluids itself and placements should not be recorded.
+     */
+    private int untrackedDepth;
+
+    private long vetoedFlows;
+    private long allowedFlows;
+
+    public static HydrophobicRegions get(World world) {
+        return Ether.get(world).getHydrophobicRegions();
+    }
+
+    HydrophobicRegions(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Adds or refreshes the sphere protected by the spell with the given id.
+     */
+    public void put(UUID id, BlockPos center, double radius, TagKey<Fluid> fluid) {
+        synchronized (locker) {
+            long time = world.getTime();
+            prune(time);
+
+            Region region = regions.get(id);
+            if (region == null) {
+                region = new Region();
+                regions.put(id, region);
+            } else if (region.center.equals(center) && region.radius == radius && region.fluid == fluid) {
+                region.lastSeen = time;
+                return;
+            } else {
+                unlink(region);
+            }
+
+            region.center = center.toImmutable();
+            region.radius = radius;
+            region.fluid = fluid;
+            region.lastSeen = time;
+            link(region);
+        }
+    }
+
+    public void remove(UUID id) {
+        synchronized (locker) {
+            Region region = regions.remove(id);
+            if (region != null) {
+                unlink(region);
+            }
+        }
+    }
+
+    /**
+     * Checks whether fluid is prevented from flowing into the given position by any active hydrophobic spell.
+     */
+    public boolean blocksFlow(BlockPos pos, FluidState fluid) {
+        synchronized (locker) {
+            if (regions.isEmpty()) {
+                allowedFlows++;
+                return false;
+            }
+
+            List<Region> candidates = chunks.get(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())));
+            if (candidates != null) {
+                long time = world.getTime();
+                for (Region region : candidates) {
+                    if (region.blocksFlow(pos, fluid, time)) {
+                        vetoedFlows++;
+                        return true;
+                    }
+                }
+            }
+
+            allowedFlows++;
+            return false;
+        }
+    }
+
+    /**
+     * Called when a block containing fluid is placed in the world.
+     * Marks the chunk section it is in for re-checking by any spell whose sphere contains it.
+     */
+    public void onFluidPlaced(BlockPos pos) {
+        synchronized (locker) {
+            if (regions.isEmpty() || untrackedDepth > 0) {
+                return;
+            }
+
+            List<Region> candidates = chunks.get(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())));
+            if (candidates != null) {
+                for (Region region : candidates) {
+                    if (pos.isWithinDistance(region.center, region.radius)) {
+                        region.updatedSections.add(ChunkSectionPos.toLong(pos));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs an action that places and removes fluids on behalf of a spell without recording any of its placements,
+     * so the spell is not made to re-check the sections it just restored itself.
+     */
+    public void runUntracked(Runnable action) {
+        synchronized (locker) {
+            untrackedDepth++;
+        }
+        try {
+            action.run();
+        } finally {
+            synchronized (locker) {
+                untrackedDepth--;
+            }
+        }
+    }
+
+    /**
+     * Gets and clears the set of chunk sections that have received fluid since the spell with the given id last checked.
+     */
+    public LongSet takeUpdatedSections(UUID id) {
+        synchronized (locker) {
+            Region region = regions.get(id);
+            if (region == null || region.updatedSections.isEmpty()) {
+                return LongSets.EMPTY_SET;
+            }
+            LongSet sections = new LongOpenHashSet(region.updatedSections);
+            region.updatedSections.clear();
+            return sections;
+        }
+    }
+
+    public int getRegionCount() {
+        synchronized (locker) {
+            return regions.size();
+        }
+    }
+
+    public long getVetoedFlows() {
+        return vetoedFlows;
+    }
+
+    public long getAllowedFlows() {
+        return allowedFlows;
+    }
+
+    private void prune(long time) {
+        if (time == lastPruneTime) {
+            return;
+        }
+        lastPruneTime = time;
+        regions.values().removeIf(region -> {
+            if (region.isExpired(time)) {
+                unlink(region);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void link(Region region) {
+        region.forEachChunk(chunk -> chunks.computeIfAbsent(chunk, l -> new ArrayList<>()).add(region));
+    }
+
+    private void unlink(Region region) {
+        region.forEachChunk(chunk -> {
+            List<Region> bucket = chunks.get(chunk);
+            if (bucket != null && bucket.remove(region) && bucket.isEmpty()) {
+                chunks.remove(chunk);
+            }
+        });
+    }
+
+    private static final class Region {
+        private BlockPos center = BlockPos.ORIGIN;
+        private double radius;
+        private TagKey<Fluid> fluid;
+
+        private long lastSeen;
+
+        private final LongSet updatedSections = new LongOpenHashSet();
+
+        boolean isExpired(long time) {
+            return time - lastSeen > EXPIRY_TICKS;
+        }
+
+        boolean blocksFlow(BlockPos pos, FluidState state, long time) {
+            return !isExpired(time) && state.isIn(fluid) && pos.isWithinDistance(center, radius);
+        }
+
+        void forEachChunk(LongConsumer consumer) {
+            int r = (int)Math.ceil(radius);
+            int minX = ChunkSectionPos.getSectionCoord(center.getX() - r);
+            int minZ = ChunkSectionPos.getSectionCoord(center.getZ() - r);
+            int maxX = ChunkSectionPos.getSectionCoord(center.getX() + r);
+            int maxZ = ChunkSectionPos.getSectionCoord(center.getZ() + r);
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    consumer.accept(ChunkPos.toLong(x, z));
+                }
+            }
+        }
+    }
+}
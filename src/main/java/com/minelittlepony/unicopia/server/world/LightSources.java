@@ -1,37 +1,48 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
-import java.util.function.Function;
-
 import com.minelittlepony.unicopia.Unicopia;
-import com.minelittlepony.unicopia.entity.DynamicLightSource;
 
-import it.unimi.dsi.fastutil.objects.AbstractObject2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
+/**
+ * Tracks the light given off by entities that glow, such as fairies.
+ * <p>
+ * Light sources report their position and level themselves whenever either changes,
+ * and the light each block receives from them is kept in a map from block position to level,
+ * with a copy bucketed by chunk, so the lighting engine can look up a single block or chunk without
+ * going through every light source in the world.
+ * <p>
+ * Sources remove themselves when their entity is removed. In case one doesn't, sources whose entity has been removed
+ * or has left the world are also dropped at most once per tick, whenever a source updates or a chunk's lights are read.
+ */
 public class LightSources extends PersistentState {
     private static final Identifier ID = Unicopia.id("light_sources");
+    private static final WorldStateSlots.Slot<LightSources> SLOT = WorldStateSlots.register(world -> WorldOverlay.getPersistableStorage(world, ID, LightSources::new, LightSources::new));
 
-    private final Set<UUID> lightSourceIds = new HashSet<>();
-    private final AbstractObject2IntMap<UUID> lightSourceClientIds = new Object2IntOpenHashMap<>();
+    private final Int2ObjectMap<Source> sources = new Int2ObjectOpenHashMap<>();
+    private final Long2IntMap levels = new Long2IntOpenHashMap();
+    private final Long2ObjectMap<Long2IntMap> chunks = new Long2ObjectOpenHashMap<>();
     private volatile boolean empty = true;
 
-    private final World world;
+    private long lastPruneTime;
 
-    private final Function<UUID, Entity> entitySupplier;
+    private final World world;
 
     public static LightSources get(World world) {
-        return WorldOverlay.getPersistableStorage(world, ID, LightSources::new, LightSources::new);
+        return SLOT.get(world);
     }
 
     LightSources(World world, NbtCompound compound) {
@@ -40,7 +51,6 @@ public class LightSources extends PersistentState {
 
     LightSources(World world) {
         this.world = world;
-        entitySupplier = world instanceof ServerWorld s ? s::getEntity : id -> world.getEntityById(lightSourceClientIds.getInt(id));
     }
 
     @Override
@@ -48,10 +58,17 @@ public class LightSources extends PersistentState {
         return compound;
     }
 
-    public void addLightSource(Entity entity) {
-        synchronized (lightSourceIds) {
-            lightSourceIds.add(entity.getUuid());
-            lightSourceClientIds.put(entity.getUuid(), entity.getId());
+    /**
+     * Sets the position and level of light given off by an entity, replacing whatever it gave off before.
+     */
+    public void updateLightSource(Entity entity, BlockPos pos, int level) {
+        synchronized (sources) {
+            prune();
+            Source previous = sources.put(entity.getId(), new Source(entity, pos.asLong(), level));
+            if (previous != null) {
+                addLevel(previous.pos(), -previous.level());
+            }
+            addLevel(pos.asLong(), level);
             empty = false;
         }
     }
@@ -60,10 +77,12 @@ public class LightSources extends PersistentState {
         if (empty) {
             return;
         }
-        synchronized (lightSourceIds) {
-            lightSourceIds.remove(entity.getUuid());
-            lightSourceClientIds.removeInt(entity.getUuid());
-            empty = lightSourceIds.isEmpty();
+        synchronized (sources) {
+            Source previous = sources.remove(entity.getId());
+            if (previous != null) {
+                addLevel(previous.pos(), -previous.level());
+            }
+            empty = sources.isEmpty();
         }
     }
 
@@ -71,50 +90,70 @@ public class LightSources extends PersistentState {
         if (empty) {
             return 0;
         }
-        final int[] result = {0};
-        forEachLightSource((pos, level) -> {
-           if (pos.asLong() == blockPos) {
-               result[0] += level;
-           }
-        });
-        return result[0];
+        synchronized (sources) {
+            return levels.get(blockPos);
+        }
     }
 
     public void forEachLightSource(ChunkPos chunkPos, LightSourceConsumer consumer) {
-        forEachLightSource((pos, level) -> {
-            if (checkPos(chunkPos, pos)) {
-                consumer.accept(pos, level);
-            }
-        });
-    }
-
-    public void forEachLightSource(LightSourceConsumer consumer) {
         if (empty) {
             return;
         }
-        synchronized (lightSourceIds) {
-            lightSourceIds.removeIf(id -> {
-                Entity entity = entitySupplier.apply(id);
-                if (entity instanceof DynamicLightSource source) {
-                    consumer.accept(entity.getBlockPos(), source.getLightLevel());
-                    return false;
+        synchronized (sources) {
+            prune();
+            Long2IntMap chunk = chunks.get(chunkPos.toLong());
+            if (chunk == null) {
+                return;
+            }
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (Long2IntMap.Entry entry : chunk.long2IntEntrySet()) {
+                pos.set(entry.getLongKey());
+                if (world.isInBuildLimit(pos)) {
+                    consumer.accept(pos, entry.getIntValue());
                 }
-                return true;
-            });
-            empty = lightSourceIds.isEmpty();
+            }
         }
     }
 
-    private boolean checkPos(ChunkPos chunkPos, BlockPos pos) {
-        return world.isInBuildLimit(pos)
-            && checkPos(pos.getX(), chunkPos.getStartX(), chunkPos.getEndX())
-            && checkPos(pos.getZ(), chunkPos.getStartZ(), chunkPos.getEndZ());
+    /**
+     * Drops the sources whose entity has been removed without removing its light.
+     */
+    private void prune() {
+        long time = world.getTime();
+        if (time == lastPruneTime) {
+            return;
+        }
+        lastPruneTime = time;
+        sources.values().removeIf(source -> {
+            if (source.entity().isRemoved() || source.entity().getWorld() != world) {
+                addLevel(source.pos(), -source.level());
+                return true;
+            }
+            return false;
+        });
+        empty = sources.isEmpty();
     }
 
-    private boolean checkPos(int p, int min, int max) {
-        return p >= min && p <= max;
+    private void addLevel(long pos, int level) {
+        if (level == 0) {
+            return;
+        }
+        if (levels.addTo(pos, level) + level <= 0) {
+            levels.remove(pos);
+        }
+
+        long chunkPos = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(BlockPos.unpackLongX(pos)), ChunkSectionPos.getSectionCoord(BlockPos.unpackLongZ(pos)));
+        Long2IntMap chunk = chunks.computeIfAbsent(chunkPos, c -> new Long2IntOpenHashMap());
+        if (chunk.addTo(pos, level) + level <= 0) {
+            chunk.remove(pos);
+            if (chunk.isEmpty()) {
+                chunks.remove(chunkPos);
+            }
+        }
     }
 
+    private record Source(Entity entity, long pos, int level) {}
+
     public interface LightSourceConsumer {
         void accept(BlockPos pos, int light);
     }
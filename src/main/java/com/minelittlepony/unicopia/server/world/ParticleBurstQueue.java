@@ -0,0 +1,137 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.MsgParticleBurst;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Collects the particles spawned by the server during a tick so they can be sent to each nearby player in one go
+ * rather than as a separate packet per particle.
+ * <p>
+ * Every player is only sent so many particles each tick. When more than that are spawned around them
+ * an even spread of them is sent and the rest are dropped. Each player's message only carries the effects
+ * its own particles use, and effects that are equal to each other are only written once.
+ */
+public class ParticleBurstQueue {
+    /**
+     * How close a player has to be to a particle to be sent it. The same as for vanilla's particles.
+     */
+    private static final double RANGE = 32;
+    /**
+     * The most particles sent to a single player each tick.
+     */
+    private static final int MAX_PARTICLES_PER_PLAYER = MsgParticleBurst.MAX_PARTICLES;
+
+    private final World world;
+
+    private final List<ParticleEffect> effects = new ArrayList<>();
+    private final Object2IntMap<ParticleEffect> effectIndices = new Object2IntOpenHashMap<>();
+    private final IntArrayList types = new IntArrayList();
+    private final DoubleArrayList positions = new DoubleArrayList();
+
+    private final Object locker = new Object();
+
+    public static ParticleBurstQueue get(World world) {
+        return Ether.get(world).getParticleBurstQueue();
+    }
+
+    ParticleBurstQueue(World world) {
+        this.world = world;
+    }
+
+    public void add(ParticleEffect effect, double x, double y, double z) {
+        synchronized (locker) {
+            int type = effectIndices.getOrDefault(effect, -1);
+            if (type == -1) {
+                type = effects.size();
+                effects.add(effect);
+                effectIndices.put(effect, type);
+            }
+            types.add(type);
+            positions.add(x);
+            positions.add(y);
+            positions.add(z);
+        }
+    }
+
+    public void flush() {
+        if (!(world instanceof ServerWorld sw)) {
+            return;
+        }
+
+        List<ParticleEffect> effects;
+        int[] types;
+        double[] positions;
+        synchronized (locker) {
+            if (this.types.isEmpty()) {
+                return;
+            }
+            effects = new ArrayList<>(this.effects);
+            types = this.types.toIntArray();
+            positions = this.positions.toDoubleArray();
+            this.effects.clear();
+            effectIndices.clear();
+            this.types.clear();
+            this.positions.clear();
+        }
+
+        IntArrayList nearby = new IntArrayList();
+        for (ServerPlayerEntity player : sw.getPlayers()) {
+            nearby.clear();
+            for (int i = 0; i < types.length; i++) {
+                if (player.squaredDistanceTo(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]) < RANGE * RANGE) {
+                    nearby.add(i);
+                }
+            }
+
+            if (nearby.isEmpty()) {
+                continue;
+            }
+
+            Channel.SERVER_PARTICLE_BURST.sendToPlayer(createMessage(effects, types, positions, nearby), player);
+        }
+    }
+
+    private static MsgParticleBurst createMessage(List<ParticleEffect> effects, int[] types, double[] positions, IntArrayList nearby) {
+        int size = Math.min(nearby.size(), MAX_PARTICLES_PER_PLAYER);
+        float stride = nearby.size() / (float)size;
+
+        int first = nearby.getInt(0);
+        Vec3d origin = new Vec3d(positions[first * 3], positions[first * 3 + 1], positions[first * 3 + 2]);
+
+        // only the effects used by this player's particles are sent, renumbered in the order they're first used
+        List<ParticleEffect> messageEffects = new ArrayList<>();
+        Int2IntMap messageEffectIndices = new Int2IntOpenHashMap();
+        int[] messageTypes = new int[size];
+        float[] offsets = new float[size * 3];
+        for (int i = 0; i < size; i++) {
+            int particle = nearby.getInt((int)(i * stride));
+            int type = types[particle];
+            int messageType = messageEffectIndices.getOrDefault(type, -1);
+            if (messageType == -1) {
+                messageType = messageEffects.size();
+                messageEffects.add(effects.get(type));
+                messageEffectIndices.put(type, messageType);
+            }
+            messageTypes[i] = messageType;
+            offsets[i * 3] = (float)(positions[particle * 3] - origin.x);
+            offsets[i * 3 + 1] = (float)(positions[particle * 3 + 1] - origin.y);
+            offsets[i * 3 + 2] = (float)(positions[particle * 3 + 2] - origin.z);
+        }
+        return new MsgParticleBurst(messageEffects, origin, messageTypes, offsets);
+    }
+}
@@ -0,0 +1,111 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.minelittlepony.unicopia.ability.magic.Caster;
+import com.minelittlepony.unicopia.ability.magic.spell.effect.AreaProtectionSpell;
+import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Memoized map of the areas covered by active arcane protection spells, bucketed by chunk column.
+ * <p>
+ * The regions are rebuilt at most once per tick, or sooner if a protection spell is placed, moved or removed,
+ * so spells that check every block in their area only pay for a hash lookup per position.
+ */
+public class ProtectionRegions {
+    /**
+     * Protection spells further than this from the caster are not considered.
+     */
+    private static final double MAX_SEARCH_RADIUS = 500;
+
+    private final World world;
+    private final SpellIndex index;
+
+    private final Long2ObjectMap<List<Region>> regions = new Long2ObjectOpenHashMap<>();
+
+    private long lastBuildTime = Long.MIN_VALUE;
+    private int lastBuildVersion;
+
+    public static ProtectionRegions get(World world) {
+        return Ether.get(world).getProtectionRegions();
+    }
+
+    ProtectionRegions(World world, SpellIndex index) {
+        this.world = world;
+        this.index = index;
+    }
+
+    /**
+     * Checks whether magic cast by the given caster is blocked at a position by somebody else's arcane protection.
+     */
+    public boolean blocksMagicFor(Caster<?> caster, Vec3d pos) {
+        List<Region> candidates;
+        synchronized (regions) {
+            rebuild();
+            candidates = regions.get(ChunkPos.toLong(
+                    ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.x)),
+                    ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.z))
+            ));
+        }
+
+        if (candidates == null) {
+            return false;
+        }
+
+        Vec3d origin = caster.getOriginVector();
+        for (Region region : candidates) {
+            if (region.contains(pos)
+                    && region.source().asEntity() != caster.asEntity()
+                    && !region.spell().isDead()
+                    && region.source().asEntity().squaredDistanceTo(origin) <= MAX_SEARCH_RADIUS * MAX_SEARCH_RADIUS
+                    && region.spell().blocksMagicFor(region.source(), caster, pos)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void rebuild() {
+        long time = world.getTime();
+        int version = index.getVersion();
+        if (time == lastBuildTime && version == lastBuildVersion) {
+            return;
+        }
+        lastBuildTime = time;
+        lastBuildVersion = version;
+        regions.clear();
+
+        for (Caster<?> source : index.getAllCasters(SpellType.ARCANE_PROTECTION)) {
+            source.getSpellSlot().stream(SpellType.ARCANE_PROTECTION, false).forEach(spell -> {
+                Region region = new Region(source, spell, source.getOriginVector(), spell.getDrawDropOffRange(source));
+
+                int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(region.center().x - region.radius()));
+                int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(region.center().z - region.radius()));
+                int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(region.center().x + region.radius()));
+                int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(region.center().z + region.radius()));
+
+                for (int x = minX; x <= maxX; x++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        regions.computeIfAbsent(ChunkPos.toLong(x, z), l -> new ArrayList<>()).add(region);
+                    }
+                }
+            });
+        }
+    }
+
+    private record Region(Caster<?> source, AreaProtectionSpell spell, Vec3d center, double radius) {
+        boolean contains(Vec3d pos) {
+            return center.squaredDistanceTo(pos) <= radius * radius;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.minelittlepony.unicopia.ability.EarthPonyStompAbility;
+import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.MsgShockwave;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Runs the shockwaves sent out by earth ponies stomping the ground.
+ * <p>
+ * Rather than damaging every block in range in the same tick, each wave moves outward one ring of blocks per tick.
+ * The blocks in each ring are sorted out when the wave starts, so only the blocks the wave is passing over are visited.
+ * Damage goes through the world's {@link BlockDestructionManager}, which sends its changes once per chunk at the end of the tick,
+ * and the blocks that only had their break effects shown are sent to nearby players as a single {@link MsgShockwave}.
+ */
+public class ShockwaveQueue {
+    /**
+     * How close a player has to be to a wave to be sent its effects. The same as for vanilla's world events.
+     */
+    private static final double RANGE = 64;
+
+    private final World world;
+
+    private final List<Shockwave> waves = new ArrayList<>();
+
+    private final Object locker = new Object();
+
+    public static ShockwaveQueue get(World world) {
+        return Ether.get(world).getShockwaveQueue();
+    }
+
+    ShockwaveQueue(World world) {
+        this.world = world;
+    }
+
+    public void add(Vec3d origin, BlockPos center, double radius, double range) {
+        if (radius <= 0) {
+            return;
+        }
+        Shockwave wave = new Shockwave(origin, center.toImmutable(), radius, range);
+        synchronized (locker) {
+            waves.add(wave);
+        }
+    }
+
+    public void tick() {
+        if (!(world instanceof ServerWorld sw)) {
+            return;
+        }
+
+        List<Shockwave> waves;
+        synchronized (locker) {
+            if (this.waves.isEmpty()) {
+                return;
+            }
+            waves = new ArrayList<>(this.waves);
+        }
+
+        waves.forEach(wave -> wave.advance(sw));
+
+        synchronized (locker) {
+            this.waves.removeIf(Shockwave::isFinished);
+        }
+    }
+
+    private static final class Shockwave {
+        private final Vec3d origin;
+        private final BlockPos center;
+        private final double range;
+
+        /**
+         * The packed position of every block the wave reaches, grouped by how far they are from its origin.
+         */
+        private final LongArrayList[] rings;
+        private int ring;
+
+        Shockwave(Vec3d origin, BlockPos center, double radius, double range) {
+            this.origin = origin;
+            this.center = center;
+            this.range = range;
+
+            int reach = MathHelper.ceil(radius);
+            double radiusSquared = radius * radius;
+            rings = new LongArrayList[reach + 1];
+
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (int x = -reach; x <= reach; x++) {
+                for (int y = -reach; y <= reach; y++) {
+                    for (int z = -reach; z <= reach; z++) {
+                        pos.set(center.getX() + x, center.getY() + y, center.getZ() + z);
+                        double distSquared = pos.getSquaredDistance(origin.x, origin.y, origin.z);
+                        if (distSquared <= radiusSquared) {
+                            int index = Math.min(reach, (int)Math.sqrt(distSquared));
+                            if (rings[index] == null) {
+                                rings[index] = new LongArrayList();
+                            }
+                            rings[index].add(pos.asLong());
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean isFinished() {
+            return ring >= rings.length;
+        }
+
+        void advance(ServerWorld world) {
+            if (isFinished()) {
+                return;
+            }
+
+            LongArrayList blocks = rings[ring];
+            rings[ring++] = null;
+
+            if (blocks == null) {
+                return;
+            }
+
+            LongArrayList shaken = new LongArrayList();
+            for (int i = 0; i < blocks.size(); i++) {
+                BlockPos pos = BlockPos.fromLong(blocks.getLong(i));
+                double dist = Math.sqrt(pos.getSquaredDistance(origin.x, origin.y, origin.z));
+                if (EarthPonyStompAbility.spawnEffect(world, pos, dist, range)) {
+                    shaken.add(pos.asLong());
+                }
+            }
+
+            if (shaken.isEmpty()) {
+                return;
+            }
+
+            MsgShockwave msg = MsgShockwave.create(center, shaken);
+            for (ServerPlayerEntity player : world.getPlayers()) {
+                if (player.squaredDistanceTo(origin) < RANGE * RANGE) {
+                    Channel.SERVER_SHOCKWAVE.sendToPlayer(msg, player);
+                }
+            }
+        }
+    }
+}
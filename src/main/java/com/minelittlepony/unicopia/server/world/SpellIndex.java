@@ -0,0 +1,227 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.ability.magic.Caster;
+import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
+import com.minelittlepony.unicopia.util.VecHelper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Server-side index of every caster with an active spell, keyed by the type of spell
+ * and bucketed by the chunk section the caster is currently in.
+ * <p>
+ * Range lookups only visit the sections that overlap the search volume
+ * (or the occupied sections, whichever is fewer) rather than scanning every entity in the world.
+ * <p>
+ * Casters are removed when their entity unloads. Queries also drop any removed casters they come across,
+ * in case one was missed.
+ */
+public class SpellIndex {
+    private final Map<SpellType<?>, Long2ObjectMap<Set<Caster<?>>>> sections = new HashMap<>();
+    private final Map<Caster<?>, Entry> entries = new HashMap<>();
+
+    private final Object locker = new Object();
+
+    private final World world;
+
+    private int version;
+
+    public static SpellIndex get(World world) {
+        return Ether.get(world).getSpellIndex();
+    }
+
+    SpellIndex(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Re-reads the spells held by the given caster and updates its entry accordingly.
+     *
+     * @return True if the caster is now present in the index.
+     */
+    public boolean update(Caster<?> caster) {
+        Set<SpellType<?>> types = new HashSet<>();
+        caster.getSpellSlot().stream(false).flatMap(spell -> spell.findMatches(s -> true)).forEach(spell -> types.add(spell.getType()));
+
+        synchronized (locker) {
+            remove(caster);
+            if (types.isEmpty() || caster.asWorld() != world) {
+                return false;
+            }
+            Entry entry = new Entry(ChunkSectionPos.toLong(caster.getOrigin()), types);
+            entries.put(caster, entry);
+            entry.add(caster);
+            return true;
+        }
+    }
+
+    /**
+     * Moves the given caster to the bucket for its current chunk section if it has changed since it was last indexed.
+     *
+     * @return True if the caster is still present in the index.
+     */
+    public boolean refresh(Caster<?> caster) {
+        synchronized (locker) {
+            Entry entry = entries.get(caster);
+            if (entry == null) {
+                return update(caster);
+            }
+
+            long section = ChunkSectionPos.toLong(caster.getOrigin());
+            if (entry.section != section) {
+                entry.remove(caster);
+                entry.section = section;
+                entry.add(caster);
+            }
+            return true;
+        }
+    }
+
+    public void remove(Caster<?> caster) {
+        synchronized (locker) {
+            Entry entry = entries.remove(caster);
+            if (entry != null) {
+                entry.remove(caster);
+            }
+        }
+    }
+
+    /**
+     * A counter that changes every time a caster is added, removed, or moves between chunk sections.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets every indexed caster that may be holding a spell of the requested type, regardless of location.
+     */
+    public List<Caster<?>> getAllCasters(SpellType<?> type) {
+        synchronized (locker) {
+            Long2ObjectMap<Set<Caster<?>>> buckets = sections.get(type);
+            if (buckets == null || buckets.isEmpty()) {
+                return List.of();
+            }
+            List<Caster<?>> matches = new ArrayList<>();
+            List<Caster<?>> stale = new ArrayList<>();
+            buckets.values().forEach(bucket -> collect(bucket, null, e -> true, matches, stale));
+            stale.forEach(this::remove);
+            return matches;
+        }
+    }
+
+    public boolean isEmpty(SpellType<?> type) {
+        synchronized (locker) {
+            Long2ObjectMap<Set<Caster<?>>> buckets = sections.get(type);
+            return buckets == null || buckets.isEmpty();
+        }
+    }
+
+    /**
+     * Finds all casters within the given radius that are (or might be) holding a spell of the requested type.
+     * Callers are expected to re-check the caster's spell slot for the spell itself.
+     */
+    public List<Caster<?>> findAllCastersInRange(@Nullable Entity except, Vec3d pos, double radius, SpellType<?> type) {
+        synchronized (locker) {
+            Long2ObjectMap<Set<Caster<?>>> buckets = sections.get(type);
+            if (buckets == null || buckets.isEmpty()) {
+                return List.of();
+            }
+
+            int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.x - radius));
+            int minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.y - radius)) - 1;
+            int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.z - radius));
+            int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.x + radius));
+            int maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.y + radius));
+            int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(pos.z + radius));
+
+            Predicate<Entity> inRange = VecHelper.inRange(pos, radius);
+            List<Caster<?>> matches = new ArrayList<>();
+            List<Caster<?>> stale = new ArrayList<>();
+
+            long volume = (long)(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+            if (volume > buckets.size()) {
+                buckets.long2ObjectEntrySet().forEach(bucket -> {
+                    long section = bucket.getLongKey();
+                    int x = ChunkSectionPos.unpackX(section);
+                    int y = ChunkSectionPos.unpackY(section);
+                    int z = ChunkSectionPos.unpackZ(section);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                        collect(bucket.getValue(), except, inRange, matches, stale);
+                    }
+                });
+            } else {
+                for (int x = minX; x <= maxX; x++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            Set<Caster<?>> bucket = buckets.get(ChunkSectionPos.asLong(x, y, z));
+                            if (bucket != null) {
+                                collect(bucket, except, inRange, matches, stale);
+                            }
+                        }
+                    }
+                }
+            }
+
+            stale.forEach(this::remove);
+            return matches;
+        }
+    }
+
+    private void collect(Set<Caster<?>> bucket, @Nullable Entity except, Predicate<Entity> inRange, List<Caster<?>> matches, List<Caster<?>> stale) {
+        for (Caster<?> caster : bucket) {
+            Entity entity = caster.asEntity();
+            if (entity.isRemoved() || entity.getWorld() != world) {
+                stale.add(caster);
+            } else if (entity != except && inRange.test(entity)) {
+                matches.add(caster);
+            }
+        }
+    }
+
+    private final class Entry {
+        private long section;
+        private final Set<SpellType<?>> types;
+
+        Entry(long section, Set<SpellType<?>> types) {
+            this.section = section;
+            this.types = types;
+        }
+
+        void add(Caster<?> caster) {
+            version++;
+            types.forEach(type -> {
+                sections.computeIfAbsent(type, t -> new Long2ObjectOpenHashMap<>())
+                    .computeIfAbsent(section, s -> new HashSet<>())
+                    .add(caster);
+            });
+        }
+
+        void remove(Caster<?> caster) {
+            version++;
+            types.forEach(type -> {
+                Long2ObjectMap<Set<Caster<?>>> buckets = sections.get(type);
+                if (buckets != null) {
+                    Set<Caster<?>> bucket = buckets.get(section);
+                    if (bucket != null && bucket.remove(caster) && bucket.isEmpty()) {
+                        buckets.remove(section);
+                        if (buckets.isEmpty()) {
+                            sections.remove(type);
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.minelittlepony.unicopia.network.datasync.EffectSync;
+
+import net.minecraft.world.World;
+
+/**
+ * Collects the spell containers in a world that may have changes to send to clients,
+ * so every change made during a tick goes out together in a single update per entity once the tick has ended.
+ */
+public class SpellSyncQueue {
+    private final List<EffectSync> pending = new ArrayList<>();
+
+    private final Object locker = new Object();
+
+    public static SpellSyncQueue get(World world) {
+        return Ether.get(world).getSpellSyncQueue();
+    }
+
+    SpellSyncQueue() {
+    }
+
+    public void add(EffectSync sync) {
+        synchronized (locker) {
+            pending.add(sync);
+        }
+    }
+
+    public void flush() {
+        List<EffectSync> syncs;
+        synchronized (locker) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            syncs = new ArrayList<>(pending);
+            pending.clear();
+        }
+        syncs.forEach(EffectSync::flush);
+    }
+}
@@ -0,0 +1,121 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.util.VecHelper;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+
+/**
+ * Registry of the rare kinds of entities that mobs go out of their way to seek out, such as crystal hearts and thrown muffins.
+ * <p>
+ * Entities re-register themselves every tick whilst they qualify. Entries that stop being refreshed
+ * (because the entity was unloaded or no longer qualifies) expire on their own.
+ */
+public class TargetIndex {
+    private static final int EXPIRY_TICKS = 20;
+
+    private final World world;
+
+    private final Map<Kind, Map<Entity, Long>> entries = new EnumMap<>(Kind.class);
+
+    private final Object locker = new Object();
+
+    private long lastPruneTime;
+
+    public static TargetIndex get(World world) {
+        return Ether.get(world).getTargetIndex();
+    }
+
+    TargetIndex(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Adds or refreshes an entity of the given kind.
+     * Also prunes expired entries once per tick, so the index stays bounded even when nothing is querying it.
+     */
+    public void put(Kind kind, Entity entity) {
+        synchronized (locker) {
+            long time = world.getTime();
+            prune(time);
+            entries.computeIfAbsent(kind, k -> new HashMap<>()).put(entity, time);
+        }
+    }
+
+    /**
+     * Checks whether there are no entities of any of the given kinds anywhere in the world.
+     */
+    public boolean isEmpty(Set<Kind> kinds) {
+        synchronized (locker) {
+            prune(world.getTime());
+            for (Kind kind : kinds) {
+                if (entries.containsKey(kind)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Finds the closest entity of any of the given kinds to the origin that matches the predicate.
+     */
+    public Optional<Entity> findNearest(Entity origin, double radius, Set<Kind> kinds, @Nullable Predicate<Entity> predicate) {
+        List<Entity> candidates = new ArrayList<>();
+        synchronized (locker) {
+            prune(world.getTime());
+            for (Kind kind : kinds) {
+                Map<Entity, Long> matches = entries.get(kind);
+                if (matches != null) {
+                    candidates.addAll(matches.keySet());
+                }
+            }
+        }
+
+        Predicate<Entity> inRange = VecHelper.inRange(origin.getPos(), radius);
+        Entity nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (Entity candidate : candidates) {
+            if (candidate == origin || !inRange.test(candidate)) {
+                continue;
+            }
+            double distance = origin.squaredDistanceTo(candidate);
+            if (distance < nearestDistance && (predicate == null || predicate.test(candidate))) {
+                nearest = candidate;
+                nearestDistance = distance;
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    private void prune(long time) {
+        if (time == lastPruneTime) {
+            return;
+        }
+        lastPruneTime = time;
+        entries.values().removeIf(matches -> {
+            matches.entrySet().removeIf(entry -> entry.getKey().isRemoved() || time - entry.getValue() > EXPIRY_TICKS);
+            return matches.isEmpty();
+        });
+    }
+
+    public enum Kind {
+        /**
+         * Floating artefacts, such as crystal hearts.
+         */
+        ARTEFACT,
+        /**
+         * Items that have been thrown, such as muffins.
+         */
+        THROWN_ITEM,
+        /**
+         * Items and entities carrying something enchanted with Want It, Need It.
+         */
+        WANT_IT_NEED_IT
+    }
+}
@@ -41,9 +41,10 @@ public class WeatherConditions extends PersistentState implements Tickable {
     public static final float MAX_WIND_HEIGHT = 70;
 
     private static final Identifier ID = Unicopia.id("weather_conditions");
+    private static final WorldStateSlots.Slot<WeatherConditions> SLOT = WorldStateSlots.register(world -> WorldOverlay.getPersistableStorage(world, ID, WeatherConditions::new, WeatherConditions::new));
 
     public static WeatherConditions get(World world) {
-        return WorldOverlay.getPersistableStorage(world, ID, WeatherConditions::new, WeatherConditions::new);
+        return SLOT.get(world);
     }
 
     private final World world;
@@ -55,6 +56,8 @@ public class WeatherConditions extends PersistentState implements Tickable {
 
     private boolean prevDayState;
 
+    private final AirflowField airflowField;
+
     private WeatherConditions(World world, NbtCompound compound) {
         this(world);
         windYaw = compound.getFloat("windYaw");
@@ -66,6 +69,7 @@ public class WeatherConditions extends PersistentState implements Tickable {
 
     private WeatherConditions(World world) {
         this.world = world;
+        this.airflowField = new AirflowField(world);
     }
 
     @Override
@@ -97,6 +101,10 @@ public class WeatherConditions extends PersistentState implements Tickable {
         return Vec3d.fromPolar(0, windYaw).normalize();
     }
 
+    public AirflowField getAirflowField() {
+        return airflowField;
+    }
+
     @Override
     public NbtCompound writeNbt(NbtCompound compound) {
         compound.putFloat("windYaw", windYaw);
@@ -107,15 +115,31 @@ public class WeatherConditions extends PersistentState implements Tickable {
         return compound;
     }
 
+    /**
+     * Gets the direction and strength of the air currents at a position.
+     * <p>
+     * Positions above the terrain surface are read from the cached {@link AirflowField}.
+     * Anything below it (under overhangs, in caves) falls back to probing the blocks directly.
+     */
     public static Vec3d getAirflow(BlockPos pos, World world) {
+        WeatherConditions conditions = get(world);
+        AirflowField field = conditions.getAirflowField();
+        if (field.isAboveSurface(pos)) {
+            return getAirflow(pos, world, field.getAltitudeField(), field.getThermalField(), conditions.getWindDirection());
+        }
+        return getAirflow(pos, world, LOCAL_ALTITUDE_FIELD, THERMAL_FIELD, conditions.getWindDirection());
+    }
+
+    private static Vec3d getAirflow(BlockPos pos, World world, Plane altitudeField, Plane thermalField, Vec3d windDirection) {
         BlockPos.Mutable probedPosition = new BlockPos.Mutable();
 
-        final float terrainFactor = getScaledDistanceFromTerrain(probedPosition.set(pos), world, MAX_TERRAIN_HEIGHT);
-        final float windFactor = getScaledDistanceFromTerrain(probedPosition.set(pos), world, MAX_WIND_HEIGHT);
+        final float altitude = altitudeField.getValue(world, probedPosition.set(pos));
+        final float terrainFactor = Math.min(MAX_TERRAIN_HEIGHT, altitude) / MAX_TERRAIN_HEIGHT;
+        final float windFactor = Math.min(MAX_WIND_HEIGHT, altitude) / MAX_WIND_HEIGHT;
 
-        Vec3d terrainGradient = LOCAL_ALTITUDE_FIELD.computeAverage(world, pos, probedPosition).multiply(1 - terrainFactor);
-        Vec3d thermalGradient = THERMAL_FIELD.computeAverage(world, pos, probedPosition).multiply(1 - terrainFactor);
-        Vec3d wind = get(world).getWindDirection().multiply(windFactor);
+        Vec3d terrainGradient = altitudeField.computeAverage(world, pos, probedPosition).multiply(1 - terrainFactor);
+        Vec3d thermalGradient = thermalField.computeAverage(world, pos, probedPosition).multiply(1 - terrainFactor);
+        Vec3d wind = windDirection.multiply(windFactor);
 
         return terrainGradient
                 .add(thermalGradient)
@@ -134,8 +158,10 @@ public class WeatherConditions extends PersistentState implements Tickable {
     }
 
     private static double getMaterialSurfaceTemperature(BlockPos.Mutable pos, World world) {
-        BlockState state = world.getBlockState(pos);
+        return getMaterialSurfaceTemperature(world.getBlockState(pos), MeteorlogicalUtil.getSunIntensity(world));
+    }
 
+    static double getMaterialSurfaceTemperature(BlockState state, float sunIntensity) {
         if (state.isAir()) {
             return VOID_UPDRAFT;
         }
@@ -152,15 +178,15 @@ public class WeatherConditions extends PersistentState implements Tickable {
         }
 
         if (state.isIn(BlockTags.SAND)) {
-            return SAND_UPDRAFT * MeteorlogicalUtil.getSunIntensity(world);
+            return SAND_UPDRAFT * sunIntensity;
         }
 
         if (state.isIn(BlockTags.SNOW) || state.isIn(BlockTags.ICE)) {
-            return ICE_UPDRAFT * MeteorlogicalUtil.getSunIntensity(world);
+            return ICE_UPDRAFT * sunIntensity;
         }
 
         if (state.getFluidState().isIn(FluidTags.WATER)) {
-            return MeteorlogicalUtil.getSunIntensity(world);
+            return sunIntensity;
         }
 
         return 0;
@@ -1,190 +1,780 @@
 package com.minelittlepony.unicopia.server.world;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.*;
 
 import org.jetbrains.annotations.Nullable;
 
+import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 import com.minelittlepony.unicopia.util.Tickable;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.*;
+import it.unimi.dsi.fastutil.longs.*;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.server.world.ThreadedAnvilChunkStorage;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
-
-public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState implements Tickable {
+import net.minecraft.world.dimension.DimensionType;
+
+/**
+ * Sparse per-block state stored alongside a world, bucketed by chunk.
+ * <p>
+ * Each state is a single byte whose meaning is decided by the overlay's {@link ValueType}.
+ * Chunks keep their states in flat arrays of packed positions, values and due times rather than an object per block,
+ * so an overlay covering thousands of blocks only costs a few bytes for each.
+ * <p>
+ * States are only ticked when they are due, using a timing wheel keyed on each state's tick delay,
+ * and only chunks containing states that changed since the last tick have updates sent to clients.
+ * <p>
+ * On the server, states are saved in sidecar files for each region of 32x32 chunks rather than in the overlay's own data file.
+ * A region is read when the first of its chunks loads, written only if something in it changed,
+ * and dropped from memory once all of its chunks have unloaded. Region files are read and written on a separate thread
+ * so chunk loading doesn't wait on the disk. States read from a region are added on the next tick.
+ */
+public class WorldOverlay extends PersistentState implements Tickable {
+    /**
+     * The number of slots in the tick schedule. States due further ahead than this stay in their slot for another revolution.
+     */
+    private static final int SCHEDULE_SIZE = 64;
+    private static final int SCHEDULE_MASK = SCHEDULE_SIZE - 1;
+    /**
+     * The number of changed states sent per tick before the remaining chunks are left for the next tick.
+     * Chunks are always sent whole, so a single large chunk may go over this.
+     */
+    private static final int MAX_UPDATES_PER_TICK = 16384;
+
+    /**
+     * Added to block y coordinates when packing positions relative to their chunk, so they are never negative.
+     */
+    private static final int Y_OFFSET = 2048;
+    private static final int INITIAL_CHUNK_CAPACITY = 16;
+
+    /**
+     * Runs all region reads and writes one at a time, in the order they were requested,
+     * so a region that's read back soon after being written always gets what was written.
+     */
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Unicopia World Overlay IO");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final World world;
 
+    /**
+     * The directory holding this overlay's region files, or null on the client.
+     */
+    @Nullable
+    private final Path directory;
+    private final Long2ObjectMap<Region> regions = new Long2ObjectOpenHashMap<>();
+    /**
+     * Regions whose files have been read and are waiting for their states to be added on the next tick.
+     */
+    private final Queue<LoadedRegion> loadedRegions = new ConcurrentLinkedQueue<>();
+
     private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    /**
+     * The number of chunks holding states, readable without locking.
+     */
+    private volatile int chunkCount;
+
+    /**
+     * Chunks containing states that have changed since updates were last sent.
+     */
+    private final LongSet dirtyChunks = new LongLinkedOpenHashSet();
+
+    /**
+     * Timing wheel of (block position, due tick) pairs.
+     */
+    private final LongArrayList[] schedule = new LongArrayList[SCHEDULE_SIZE];
+    private LongArrayList spareSlot = new LongArrayList();
+
+    private int ticks;
 
     private final Object locker = new Object();
 
-    private final Supplier<T> factory;
+    private final ValueType type;
     @Nullable
-    private final BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender;
+    private final UpdateSender updateSender;
 
     public static <T extends PersistentState> T getPersistableStorage(World world, Identifier id, BiFunction<World, NbtCompound, T> loadFunc, Function<World, T> factory) {
         if (world instanceof ServerWorld serverWorld) {
             return serverWorld.getPersistentStateManager().getOrCreate(
                     compound -> loadFunc.apply(world, compound),
                     () -> factory.apply(world),
-                    id.getNamespace() + "_" + id.getPath().replace('/', '_')
+                    getFileName(id)
             );
         }
 
         return ClientInstance.of(world, id, factory).instance();
     }
 
-    public static <T extends State> WorldOverlay<T> getOverlay(World world, Identifier id, Supplier<T> factory, @Nullable BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender) {
-        return getOverlay(world, id, w -> new WorldOverlay<>(w, factory, updateSender));
+    public static WorldOverlay getOverlay(World world, Identifier id, ValueType type, @Nullable UpdateSender updateSender) {
+        return getOverlay(world, id, w -> new WorldOverlay(w, id, type, updateSender));
     }
 
-    public static <T extends State> WorldOverlay<T> getOverlay(World world, Identifier id, Function<World, WorldOverlay<T>> overlayFactory) {
+    public static WorldOverlay getOverlay(World world, Identifier id, Function<World, WorldOverlay> overlayFactory) {
         return getPersistableStorage(world, id, (w, tag) -> {
-            WorldOverlay<T> overlay = overlayFactory.apply(w);
+            WorldOverlay overlay = overlayFactory.apply(w);
             overlay.readNbt(tag);
             return overlay;
         }, overlayFactory);
     }
 
-    WorldOverlay(World world, Supplier<T> factory, @Nullable BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender) {
+    /**
+     * @param updateSender Called with the states in a chunk that have changed and the players watching that chunk.
+     */
+    WorldOverlay(World world, Identifier id, ValueType type, @Nullable UpdateSender updateSender) {
         this.world = world;
-        this.factory = factory;
+        this.directory = world instanceof ServerWorld serverWorld
+                ? DimensionType.getSaveDirectory(serverWorld.getRegistryKey(), serverWorld.getServer().getSavePath(WorldSavePath.ROOT))
+                        .resolve("data")
+                        .resolve(getFileName(id) + "_regions")
+                : null;
+        this.type = type;
         this.updateSender = updateSender;
+        for (int i = 0; i < schedule.length; i++) {
+            schedule[i] = new LongArrayList();
+        }
+    }
+
+    private static String getFileName(Identifier id) {
+        return id.getNamespace() + "_" + id.getPath().replace('/', '_');
     }
 
     @Override
     public NbtCompound writeNbt(NbtCompound compound) {
-        NbtCompound destructions = new NbtCompound();
-        this.chunks.forEach((id, chunk) -> {
-            destructions.put(id.toString(), chunk.toNBT());
-        });
-        compound.put("chunks", destructions);
-        return compound;
+        synchronized (locker) {
+            if (directory == null) {
+                NbtCompound destructions = new NbtCompound();
+                this.chunks.forEach((id, chunk) -> {
+                    destructions.put(id.toString(), chunk.toNBT());
+                });
+                compound.put("chunks", destructions);
+            }
+            return compound;
+        }
     }
 
+    /**
+     * Reads states saved directly in the overlay's data file by older versions.
+     * They are moved into region files the next time the world saves.
+     */
     public void readNbt(NbtCompound compound) {
-        NbtCompound d = compound.getCompound("chunks");
-        d.getKeys().forEach(id -> {
-            chunks.computeIfAbsent(Long.valueOf(id), Chunk::new).fromNBT(d.getCompound(id));
-        });
+        synchronized (locker) {
+            NbtCompound d = compound.getCompound("chunks");
+            d.getKeys().forEach(id -> {
+                long key = Long.parseLong(id);
+                if (directory != null) {
+                    getOrLoadRegion(getRegionKey(key)).dirty = true;
+                }
+                if (!chunks.containsKey(key)) {
+                    loadChunk(key, d.getCompound(id));
+                }
+            });
+            if (!d.isEmpty()) {
+                markDirty();
+            }
+        }
     }
 
-    @Nullable
-    public T getState(BlockPos pos) {
-        return getChunk(pos).getState(pos);
+    @Override
+    public void save(File file) {
+        if (directory != null) {
+            synchronized (locker) {
+                regions.long2ObjectEntrySet().removeIf(entry -> {
+                    Region region = entry.getValue();
+                    if (region.dirty) {
+                        region.write();
+                    }
+                    if (region.loadedChunks <= 0) {
+                        region.unload();
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            // wait for every write queued so far, including those from regions that unloaded earlier, to reach the disk
+            CompletableFuture.runAsync(() -> {}, IO_EXECUTOR).join();
+        }
+        super.save(file);
+    }
+
+    /**
+     * Called when a chunk is loaded by the world to read the states saved for its region.
+     */
+    public void onChunkLoaded(ChunkPos pos) {
+        if (directory == null) {
+            return;
+        }
+        synchronized (locker) {
+            getOrLoadRegion(getRegionKey(pos.toLong())).loadedChunks++;
+        }
+    }
+
+    /**
+     * Called when a chunk is unloaded by the world.
+     * Once every chunk in a region has unloaded, its states are written out if they changed and then dropped from memory.
+     */
+    public void onChunkUnloaded(ChunkPos pos) {
+        if (directory == null) {
+            return;
+        }
+        synchronized (locker) {
+            long key = getRegionKey(pos.toLong());
+            Region region = regions.get(key);
+            if (region != null && --region.loadedChunks <= 0) {
+                if (region.dirty) {
+                    region.write();
+                }
+                region.unload();
+                regions.remove(key);
+            }
+        }
+    }
+
+    private Region getOrLoadRegion(long key) {
+        Region region = regions.get(key);
+        if (region == null) {
+            region = new Region(key);
+            regions.put(key, region);
+            region.read();
+        }
+        return region;
+    }
+
+    private void markRegionDirty(long chunkKey) {
+        if (directory != null) {
+            Region region = regions.get(getRegionKey(chunkKey));
+            if (region != null) {
+                region.dirty = true;
+            }
+        }
+    }
+
+    private void loadChunk(long key, NbtCompound compound) {
+        Chunk chunk = new Chunk(key);
+        chunk.fromNBT(compound);
+        if (chunk.size == 0) {
+            return;
+        }
+        chunks.put(key, chunk);
+        chunkCount = chunks.size();
+        for (int slot = 0; slot < chunk.size; slot++) {
+            chunk.markDirty(chunk.positions[slot]);
+            schedule(chunk, slot);
+        }
+    }
+
+    /**
+     * Checks whether this overlay has no states anywhere. Doesn't lock, so it can be used to skip lookups cheaply.
+     */
+    public boolean isEmpty() {
+        return chunkCount == 0;
     }
 
-    public T getOrCreateState(BlockPos pos) {
+    /**
+     * Gets the value of the state at the given position, or the given default if there is no state there.
+     */
+    public int getValue(BlockPos pos, int defaultValue) {
+        if (isEmpty()) {
+            return defaultValue;
+        }
         synchronized (locker) {
-            return getChunk(pos).getOrCreateState(pos);
+            Chunk chunk = chunks.get(getChunkKey(pos.asLong()));
+            int slot = chunk == null ? -1 : chunk.indexOf(pos);
+            return slot < 0 ? defaultValue : chunk.values[slot];
         }
     }
 
-    private Chunk getChunk(BlockPos pos) {
-        return chunks.computeIfAbsent(new ChunkPos(pos).toLong(), Chunk::new);
+    /**
+     * Sets the value of the state at the given position, creating it if there isn't one yet.
+     * The state is sent to clients at the end of the tick and rescheduled according to the new value's tick delay.
+     */
+    public void setValue(BlockPos pos, byte value) {
+        synchronized (locker) {
+            Chunk chunk = getOrCreateChunk(pos);
+            int slot = chunk.getOrCreateSlot(pos);
+            chunk.values[slot] = value;
+            markStateDirty(chunk, slot);
+            markDirty();
+        }
     }
 
-    public void setState(BlockPos pos, @Nullable T state) {
+    /**
+     * Sets the value of the state at the given position as with {@link #setValue(BlockPos, byte)}, but only if there is one.
+     * Nothing is created if there is no state there.
+     *
+     * @return True if there was a state to change.
+     */
+    public boolean setValueIfPresent(BlockPos pos, byte value) {
+        if (isEmpty()) {
+            return false;
+        }
         synchronized (locker) {
-            getChunk(pos).setState(pos, state);
+            Chunk chunk = chunks.get(getChunkKey(pos.asLong()));
+            int slot = chunk == null ? -1 : chunk.indexOf(pos);
+            if (slot < 0) {
+                return false;
+            }
+            chunk.values[slot] = value;
+            markStateDirty(chunk, slot);
             markDirty();
+            return true;
+        }
+    }
+
+    private Chunk getOrCreateChunk(BlockPos pos) {
+        long key = getChunkKey(pos.asLong());
+        if (directory != null) {
+            getOrLoadRegion(getRegionKey(key));
+        }
+        Chunk chunk = chunks.computeIfAbsent(key, Chunk::new);
+        chunkCount = chunks.size();
+        return chunk;
+    }
+
+    private void markStateDirty(Chunk chunk, int slot) {
+        chunk.markDirty(chunk.positions[slot]);
+        markRegionDirty(chunk.pos);
+        schedule(chunk, slot);
+    }
+
+    public int getStateCount() {
+        synchronized (locker) {
+            int count = 0;
+            for (Chunk chunk : chunks.values()) {
+                count += chunk.size;
+            }
+            return count;
+        }
+    }
+
+    public int getChunkCount() {
+        synchronized (locker) {
+            return chunks.size();
+        }
+    }
+
+    public int getDirtyChunkCount() {
+        synchronized (locker) {
+            return dirtyChunks.size();
         }
     }
 
     @Override
     public void tick() {
         synchronized (locker) {
-            chunks.long2ObjectEntrySet().removeIf(entry -> entry.getValue().tick());
+            ticks++;
+            applyLoadedRegions();
+            tickDueStates();
+
+            if (world instanceof ServerWorld serverWorld && !dirtyChunks.isEmpty()) {
+                int budget = MAX_UPDATES_PER_TICK;
+                for (LongIterator it = dirtyChunks.iterator(); it.hasNext() && budget > 0;) {
+                    Chunk chunk = chunks.get(it.nextLong());
+                    it.remove();
+                    if (chunk != null) {
+                        budget -= chunk.sendUpdates(serverWorld);
+                    }
+                }
+            }
+        }
+    }
 
-            if (world instanceof ServerWorld) {
-                chunks.forEach((chunkPos, chunk) -> chunk.sendUpdates((ServerWorld)world));
+    private void applyLoadedRegions() {
+        for (LoadedRegion loaded; (loaded = loadedRegions.poll()) != null;) {
+            Region region = loaded.region();
+            if (regions.get(region.key) != region) {
+                // unloaded again before its states could be added
+                continue;
+            }
+            region.loaded = true;
+            NbtCompound d = loaded.chunks();
+            for (String id : d.getKeys()) {
+                try {
+                    long key = Long.parseLong(id);
+                    if (!chunks.containsKey(key)) {
+                        loadChunk(key, d.getCompound(id));
+                    }
+                } catch (NumberFormatException e) {
+                    Unicopia.LOGGER.error("Invalid chunk {} in world overlay region {}", id, region.getFile(), e);
+                }
             }
         }
     }
 
-    private class Chunk implements NbtSerialisable {
-        private final Long2ObjectMap<T> states = new Long2ObjectOpenHashMap<>();
+    private void tickDueStates() {
+        int index = ticks & SCHEDULE_MASK;
+        LongArrayList due = schedule[index];
+        if (due.isEmpty()) {
+            return;
+        }
+
+        schedule[index] = spareSlot;
+        for (int i = 0; i < due.size(); i += 2) {
+            long pos = due.getLong(i);
+            int time = (int)due.getLong(i + 1);
+
+            Chunk chunk = chunks.get(getChunkKey(pos));
+            int slot = chunk == null ? -1 : chunk.indexOf(packLocal(pos));
+            if (slot < 0 || chunk.dueTimes[slot] != time) {
+                // the state was removed or rescheduled since this entry was added
+                continue;
+            }
+
+            if (time > ticks) {
+                schedule[index].add(pos);
+                schedule[index].add(time);
+                continue;
+            }
+
+            chunk.dueTimes[slot] = -1;
+            int value = type.tick(chunk.values[slot]);
+            if (value < 0) {
+                chunk.remove(slot);
+            } else {
+                chunk.values[slot] = (byte)value;
+                markStateDirty(chunk, slot);
+            }
+        }
+        due.clear();
+        spareSlot = due;
+    }
 
+    private void schedule(Chunk chunk, int slot) {
+        int time = ticks + Math.max(1, type.getTickDelay(chunk.values[slot]));
+        if (chunk.dueTimes[slot] != time) {
+            chunk.dueTimes[slot] = time;
+            LongArrayList entries = schedule[time & SCHEDULE_MASK];
+            entries.add(chunk.unpackLocal(chunk.positions[slot]));
+            entries.add(time);
+        }
+    }
+
+    /**
+     * Packs a block position relative to the chunk containing it.
+     */
+    private static int packLocal(long blockPos) {
+        return ((BlockPos.unpackLongY(blockPos) + Y_OFFSET) << 8)
+                | ((BlockPos.unpackLongZ(blockPos) & 15) << 4)
+                | (BlockPos.unpackLongX(blockPos) & 15);
+    }
+
+    private static long getRegionKey(long chunkKey) {
+        return ChunkPos.toLong(ChunkPos.getPackedX(chunkKey) >> 5, ChunkPos.getPackedZ(chunkKey) >> 5);
+    }
+
+    private static long getChunkKey(long blockPos) {
+        return ChunkPos.toLong(
+                ChunkSectionPos.getSectionCoord(BlockPos.unpackLongX(blockPos)),
+                ChunkSectionPos.getSectionCoord(BlockPos.unpackLongZ(blockPos))
+        );
+    }
+
+    private class Chunk implements NbtSerialisable {
         private final long pos;
 
+        /**
+         * The slot holding each state in the arrays below, keyed by its position packed relative to this chunk.
+         */
+        private final Int2IntMap slots = new Int2IntOpenHashMap();
+        private int[] positions = new int[INITIAL_CHUNK_CAPACITY];
+        private byte[] values = new byte[INITIAL_CHUNK_CAPACITY];
+        /**
+         * The tick each state is next due, or -1 if it isn't scheduled.
+         */
+        private int[] dueTimes = new int[INITIAL_CHUNK_CAPACITY];
+        private int size;
+
+        private final IntSet dirtyStates = new IntOpenHashSet();
+
         Chunk(long pos) {
             this.pos = pos;
+            slots.defaultReturnValue(-1);
         }
 
-        @Nullable
-        public T getState(BlockPos pos) {
-            return states.get(pos.asLong());
+        int indexOf(BlockPos pos) {
+            return indexOf(packLocal(pos.asLong()));
         }
 
-        public T getOrCreateState(BlockPos pos) {
-            return states.computeIfAbsent(pos.asLong(), l -> factory.get());
+        int indexOf(int local) {
+            return slots.get(local);
         }
 
-        public void setState(BlockPos pos, @Nullable T state) {
-            if (state == null) {
-                states.remove(pos.asLong());
-            } else {
-                states.put(pos.asLong(), state);
+        int getOrCreateSlot(BlockPos pos) {
+            int local = packLocal(pos.asLong());
+            int slot = indexOf(local);
+            if (slot < 0) {
+                slot = add(local, (byte)0);
             }
+            return slot;
         }
 
-        boolean tick() {
-            states.long2ObjectEntrySet().removeIf(e -> e.getValue().tick());
-            return states.isEmpty();
+        private int add(int local, byte value) {
+            if (size == positions.length) {
+                int capacity = size * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                values = Arrays.copyOf(values, capacity);
+                dueTimes = Arrays.copyOf(dueTimes, capacity);
+            }
+            int slot = size++;
+            positions[slot] = local;
+            values[slot] = value;
+            dueTimes[slot] = -1;
+            slots.put(local, slot);
+            return slot;
         }
 
-        void sendUpdates(ServerWorld world) {
-            if (updateSender == null) {
-                return;
+        /**
+         * Removes the state in the given slot by moving the last state into its place.
+         */
+        void remove(int slot) {
+            int local = positions[slot];
+            slots.remove(local);
+            dirtyStates.remove(local);
+
+            int last = --size;
+            if (slot != last) {
+                positions[slot] = positions[last];
+                values[slot] = values[last];
+                dueTimes[slot] = dueTimes[last];
+                slots.put(positions[slot], slot);
             }
 
-            if (!world.getChunkManager().isChunkLoaded(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos))) {
-                return;
+            markRegionDirty(this.pos);
+            if (size == 0) {
+                chunks.remove(this.pos);
+                chunkCount = chunks.size();
+                dirtyChunks.remove(this.pos);
             }
+        }
 
-            ThreadedAnvilChunkStorage storage = world.getChunkManager().threadedAnvilChunkStorage;
+        void markDirty(int local) {
+            dirtyStates.add(local);
+            dirtyChunks.add(this.pos);
+        }
 
-            List<ServerPlayerEntity> players = storage.getPlayersWatchingChunk(new ChunkPos(pos), false);
+        long unpackLocal(int local) {
+            return BlockPos.asLong(
+                    ChunkSectionPos.getBlockCoord(ChunkPos.getPackedX(pos)) + (local & 15),
+                    (local >>> 8) - Y_OFFSET,
+                    ChunkSectionPos.getBlockCoord(ChunkPos.getPackedZ(pos)) + ((local >> 4) & 15)
+            );
+        }
 
-            if (!players.isEmpty()) {
-                updateSender.accept(states, players);
+        /**
+         * Sends the states in this chunk that have changed to the players watching it.
+         *
+         * @return The number of changed states.
+         */
+        int sendUpdates(ServerWorld world) {
+            int count = dirtyStates.size();
+            if (updateSender != null && !dirtyStates.isEmpty()
+                    && world.getChunkManager().isChunkLoaded(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos))) {
+                ThreadedAnvilChunkStorage storage = world.getChunkManager().threadedAnvilChunkStorage;
+
+                List<ServerPlayerEntity> players = storage.getPlayersWatchingChunk(new ChunkPos(pos), false);
+
+                if (!players.isEmpty()) {
+                    long[] changedPositions = new long[count];
+                    byte[] changedValues = new byte[count];
+                    int changes = 0;
+                    for (IntIterator it = dirtyStates.iterator(); it.hasNext();) {
+                        int local = it.nextInt();
+                        int slot = indexOf(local);
+                        if (slot >= 0) {
+                            changedPositions[changes] = unpackLocal(local);
+                            changedValues[changes] = values[slot];
+                            changes++;
+                        }
+                    }
+                    updateSender.send(changedPositions, changedValues, changes, players);
+                }
             }
+            dirtyStates.clear();
+            return count;
         }
 
         @Override
         public void toNBT(NbtCompound compound) {
-            NbtCompound states = new NbtCompound();
-            this.states.forEach((id, state) -> {
-                states.put(id.toString(), state.toNBT());
-            });
-            compound.put("states", states);
+            compound.putIntArray("positions", Arrays.copyOf(positions, size));
+            compound.putByteArray("values", Arrays.copyOf(values, size));
         }
 
         @Override
         public void fromNBT(NbtCompound compound) {
-            NbtCompound d = compound.getCompound("states");
-            chunks.clear();
-            d.getKeys().forEach(id -> {
-                states.computeIfAbsent(Long.valueOf(id), i -> factory.get()).fromNBT(d.getCompound(id));
+            slots.clear();
+            size = 0;
+            if (compound.contains("states", NbtElement.COMPOUND_TYPE)) {
+                // older versions saved each state as its own compound keyed by its packed block position
+                NbtCompound d = compound.getCompound("states");
+                d.getKeys().forEach(id -> {
+                    add(packLocal(Long.parseLong(id)), type.readLegacy(d.getCompound(id)));
+                });
+                return;
+            }
+            int[] positions = compound.getIntArray("positions");
+            byte[] values = compound.getByteArray("values");
+            for (int i = 0; i < Math.min(positions.length, values.length); i++) {
+                if (indexOf(positions[i]) < 0) {
+                    add(positions[i], values[i]);
+                }
+            }
+        }
+    }
+
+    private class Region {
+        private final long key;
+        private final int x;
+        private final int z;
+
+        private boolean dirty;
+        private int loadedChunks;
+        /**
+         * Set once the states read from this region's file have been added.
+         */
+        private boolean loaded;
+
+        Region(long key) {
+            this.key = key;
+            this.x = ChunkPos.getPackedX(key);
+            this.z = ChunkPos.getPackedZ(key);
+        }
+
+        File getFile() {
+            return directory.resolve("r." + x + "." + z + ".dat").toFile();
+        }
+
+        void read() {
+            File file = getFile();
+            IO_EXECUTOR.execute(() -> loadedRegions.add(new LoadedRegion(this, readChunks(file))));
+        }
+
+        /**
+         * Takes a copy of this region's states and queues it to be written to disk.
+         */
+        void write() {
+            dirty = false;
+            NbtCompound d = new NbtCompound();
+            forEachChunk(key -> {
+                Chunk chunk = chunks.get(key);
+                if (chunk != null) {
+                    d.put(Long.toString(key), chunk.toNBT());
+                }
+            });
+
+            File file = getFile();
+            // if the file's states were never added, keep the ones that weren't overwritten rather than losing them
+            boolean merge = !loaded;
+            IO_EXECUTOR.execute(() -> {
+                if (merge) {
+                    NbtCompound saved = readChunks(file);
+                    saved.getKeys().forEach(id -> {
+                        if (!d.contains(id)) {
+                            d.put(id, saved.get(id));
+                        }
+                    });
+                }
+                try {
+                    if (d.isEmpty()) {
+                        file.delete();
+                    } else {
+                        file.getParentFile().mkdirs();
+                        NbtCompound compound = new NbtCompound();
+                        compound.put("chunks", d);
+                        NbtIo.writeCompressed(compound, file);
+                    }
+                } catch (IOException e) {
+                    Unicopia.LOGGER.error("Could not save world overlay region {}", file, e);
+                }
             });
         }
+
+        void unload() {
+            forEachChunk(key -> {
+                chunks.remove(key);
+                chunkCount = chunks.size();
+                dirtyChunks.remove(key);
+            });
+        }
+
+        void forEachChunk(LongConsumer consumer) {
+            for (int cx = 0; cx < 32; cx++) {
+                for (int cz = 0; cz < 32; cz++) {
+                    consumer.accept(ChunkPos.toLong((x << 5) + cx, (z << 5) + cz));
+                }
+            }
+        }
+    }
+
+    private static NbtCompound readChunks(File file) {
+        if (file.exists()) {
+            try {
+                return NbtIo.readCompressed(file).getCompound("chunks");
+            } catch (IOException e) {
+                Unicopia.LOGGER.error("Could not read world overlay region {}", file, e);
+            }
+        }
+        return new NbtCompound();
+    }
+
+    private record LoadedRegion(Region region, NbtCompound chunks) {}
+
+    /**
+     * Describes how the values stored in an overlay change over time.
+     */
+    public interface ValueType {
+        /**
+         * Called once a state's tick delay has passed.
+         *
+         * @return The state's new value, or a negative number if it has expired and should be removed.
+         */
+        int tick(byte value);
+
+        /**
+         * The number of ticks to wait before a state with the given value is next ticked.
+         * Re-read every time the state is ticked or changed.
+         */
+        int getTickDelay(byte value);
+
+        /**
+         * Reads the value of a state saved by older versions, which wrote each state as its own compound.
+         */
+        byte readLegacy(NbtCompound compound);
     }
 
-    public interface State extends NbtSerialisable {
-        boolean tick();
+    public interface UpdateSender {
+        /**
+         * Sends the states in a chunk that have changed to the players watching that chunk.
+         *
+         * @param positions The packed block positions of the changed states.
+         * @param values The new value of each state.
+         * @param count The number of entries in the arrays that are used.
+         */
+        void send(long[] positions, byte[] values, int count, List<ServerPlayerEntity> players);
     }
 
     record ClientInstance<T extends PersistentState>(WeakReference<World> world, T instance) {
@@ -0,0 +1,60 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import net.minecraft.world.World;
+
+/**
+ * Holds the per-world singletons, such as the {@link Ether} and {@link LightSources}, directly on each world.
+ * <p>
+ * Each singleton is looked up from the world's persistent state manager (or created on the client) the first time it's asked for,
+ * and kept in a slot on the world from then on, so asking for it again is just an array read.
+ * The persistent state manager still owns the states and is still responsible for saving them.
+ */
+public final class WorldStateSlots {
+    private static final int CAPACITY = 16;
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private final AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(CAPACITY);
+
+    /**
+     * Registers a new slot for a per-world singleton.
+     *
+     * @param resolver Function that looks up or creates the singleton for a world. Called at most once per world.
+     */
+    public static <T> Slot<T> register(Function<World, T> resolver) {
+        int index = NEXT_INDEX.getAndIncrement();
+        if (index >= CAPACITY) {
+            throw new IllegalStateException("Too many world state slots registered. Increase the capacity to at least " + (index + 1));
+        }
+        return new Slot<>(index, resolver);
+    }
+
+    public static WorldStateSlots of(World world) {
+        return ((Holder)world).getStateSlots();
+    }
+
+    public record Slot<T>(int index, Function<World, T> resolver) {
+        @SuppressWarnings("unchecked")
+        public T get(World world) {
+            AtomicReferenceArray<Object> values = of(world).values;
+            Object value = values.get(index);
+            if (value == null) {
+                synchronized (values) {
+                    value = values.get(index);
+                    if (value == null) {
+                        value = resolver.apply(world);
+                        values.set(index, value);
+                    }
+                }
+            }
+            return (T)value;
+        }
+    }
+
+    public interface Holder {
+        WorldStateSlots getStateSlots();
+    }
+}
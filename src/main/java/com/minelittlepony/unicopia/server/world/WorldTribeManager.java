@@ -7,6 +7,9 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.PersistentState;
 
 public class WorldTribeManager extends PersistentState {
+    private static final WorldStateSlots.Slot<WorldTribeManager> SLOT = WorldStateSlots.register(world -> {
+        return ((ServerWorld)world).getPersistentStateManager().getOrCreate(WorldTribeManager::new, WorldTribeManager::new, "unicopia_tribes");
+    });
 
     private Race defaultRace = Race.UNSET;
 
@@ -33,6 +36,6 @@ public class WorldTribeManager extends PersistentState {
     }
 
     public static WorldTribeManager forWorld(ServerWorld world) {
-        return world.getPersistentStateManager().getOrCreate(WorldTribeManager::new, WorldTribeManager::new, "unicopia_tribes");
+        return SLOT.get(world);
     }
 }
@@ -0,0 +1,65 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.*;
+
+import com.minelittlepony.unicopia.entity.ItemTracker;
+import com.minelittlepony.unicopia.entity.Living;
+
+import net.minecraft.util.math.Box;
+import net.minecraft.world.World;
+
+/**
+ * Registry of the entities in a world currently wearing each kind of item tracked by their {@link ItemTracker}.
+ * <p>
+ * Entries are added and removed by the tracker as items are equipped and unequipped,
+ * so goals looking for somebody wearing a particular item can skip scanning for entities when nobody is.
+ * Entities that have been unloaded or moved to a different world are dropped the next time they are looked up.
+ */
+public class WornItemIndex {
+    private final World world;
+
+    private final Map<ItemTracker.Trackable, Set<Living<?>>> wearers = new HashMap<>();
+
+    private final Object locker = new Object();
+
+    public static WornItemIndex get(World world) {
+        return Ether.get(world).getWornItemIndex();
+    }
+
+    WornItemIndex(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Replaces the items recorded as being worn by an entity.
+     */
+    public void update(Living<?> wearer, Set<ItemTracker.Trackable> items) {
+        synchronized (locker) {
+            wearers.values().removeIf(set -> set.remove(wearer) && set.isEmpty());
+            items.forEach(item -> wearers.computeIfAbsent(item, i -> new HashSet<>()).add(wearer));
+        }
+    }
+
+    /**
+     * Checks whether anybody wearing the given item is inside the given area.
+     */
+    public boolean isWornWithin(ItemTracker.Trackable item, Box area) {
+        synchronized (locker) {
+            Set<Living<?>> candidates = wearers.get(item);
+            if (candidates == null) {
+                return false;
+            }
+            candidates.removeIf(wearer -> wearer.asEntity().isRemoved() || wearer.asWorld() != world);
+            if (candidates.isEmpty()) {
+                wearers.remove(item);
+                return false;
+            }
+            for (Living<?> wearer : candidates) {
+                if (wearer.asEntity().getBoundingBox().intersects(area)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
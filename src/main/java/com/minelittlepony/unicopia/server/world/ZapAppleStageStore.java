@@ -27,9 +27,10 @@ import net.minecraft.world.event.GameEvent;
 
 public class ZapAppleStageStore extends PersistentState implements Tickable {
     private static final Identifier ID = Unicopia.id("zap_apple_stage");
+    private static final WorldStateSlots.Slot<ZapAppleStageStore> SLOT = WorldStateSlots.register(world -> WorldOverlay.getPersistableStorage(world, ID, ZapAppleStageStore::new, ZapAppleStageStore::new));
 
     public static ZapAppleStageStore get(World world) {
-        return WorldOverlay.getPersistableStorage(world, ID, ZapAppleStageStore::new, ZapAppleStageStore::new);
+        return SLOT.get(world);
     }
 
     private final World world;
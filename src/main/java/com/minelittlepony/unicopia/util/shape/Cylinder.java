@@ -1,5 +1,8 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.function.Consumer;
+
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
@@ -86,6 +89,51 @@ public class Cylinder implements Shape {
         return y == height/2;
     }
 
+    @Override
+    public boolean isPointInside(double x, double y, double z) {
+        x /= stretchX;
+        z /= stretchZ;
+        y = Math.abs(y);
+        if (y < height/2) {
+            double r = (x * x) + (z * z);
+            return hollow ? r == rad * rad : r <= rad * rad;
+        }
+        return y == height/2;
+    }
+
+    @Override
+    public void forEachBlock(Vec3d offset, Consumer<BlockPos> consumer) {
+        if (hollow || stretchX == 0 || stretchZ == 0) {
+            Shape.super.forEachBlock(offset, consumer);
+            return;
+        }
+
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        double radSq = rad * rad;
+        int minX = MathHelper.floor(offset.x - stretchX * rad);
+        int maxX = MathHelper.floor(offset.x + stretchX * rad);
+        int minY = MathHelper.ceil(offset.y - height/2 - 0.5);
+        int maxY = MathHelper.floor(offset.y + height/2 - 0.5);
+        int maxZ = MathHelper.floor(offset.z + stretchZ * rad);
+
+        for (int z = MathHelper.floor(offset.z - stretchZ * rad); z <= maxZ; z++) {
+            double dz = (z + 0.5 - offset.z) / stretchZ;
+            double remaining = radSq - dz * dz;
+            if (remaining < 0) {
+                continue;
+            }
+            // every layer of the cylinder has the same span of blocks in each row
+            double halfWidth = Math.sqrt(remaining) * stretchX;
+            int rowStart = Math.max(minX, MathHelper.ceil(offset.x - halfWidth - 0.5));
+            int rowEnd = Math.min(maxX, MathHelper.floor(offset.x + halfWidth - 0.5));
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = rowStart; x <= rowEnd; x++) {
+                    consumer.accept(pos.set(x, y, z));
+                }
+            }
+        }
+    }
+
     @Override
     public Vec3d getLowerBound() {
         return new Vec3d(-rad * stretchX, 0, -rad * stretchZ);
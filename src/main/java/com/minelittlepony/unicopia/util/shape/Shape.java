@@ -1,5 +1,6 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import net.minecraft.util.math.*;
@@ -32,6 +33,15 @@ public interface Shape extends PointGenerator {
      */
     boolean isPointInside(Vec3d point);
 
+    /**
+     * Checks if the given point is on the edge, or if not hollow the inside, of this shape.
+     * <p>
+     * Shapes should override this to avoid allocating a vector for every point tested.
+     */
+    default boolean isPointInside(double x, double y, double z) {
+        return isPointInside(new Vec3d(x, y, z));
+    }
+
     /**
      * Returns a stream of all block positions that fit inside this shape.
      */
@@ -42,6 +52,40 @@ public interface Shape extends PointGenerator {
         ).filter(pos -> isPointInside(Vec3d.ofCenter(pos)));
     }
 
+    /**
+     * Visits every block position that fits inside this shape.
+     * <p>
+     * The position passed to the consumer is mutable and reused between calls.
+     * Call {@link BlockPos#toImmutable()} if it needs to be kept.
+     */
+    default void forEachBlock(Consumer<BlockPos> consumer) {
+        forEachBlock(Vec3d.ZERO, consumer);
+    }
+
+    /**
+     * Visits every block position that fits inside this shape after it has been moved by the given offset.
+     * <p>
+     * Positions are visited in the same order as {@link #getBlockPositions()}.
+     * The position passed to the consumer is mutable and reused between calls.
+     */
+    default void forEachBlock(Vec3d offset, Consumer<BlockPos> consumer) {
+        Vec3d min = getLowerBound().add(offset);
+        Vec3d max = getUpperBound().add(offset);
+        int minX = MathHelper.floor(min.x);
+        int maxX = MathHelper.floor(max.x);
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        for (int z = MathHelper.floor(min.z); z <= MathHelper.floor(max.z); z++) {
+            for (int y = MathHelper.floor(min.y); y <= MathHelper.floor(max.y); y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    if (isPointInside(x + 0.5 - offset.x, y + 0.5 - offset.y, z + 0.5 - offset.z)) {
+                        consumer.accept(pos.set(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Returns a sequence of random points dealed out to uniformly fill this shape's area.
      */
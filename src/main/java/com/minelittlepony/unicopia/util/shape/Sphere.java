@@ -1,5 +1,8 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.function.Consumer;
+
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
@@ -92,6 +95,47 @@ public class Sphere implements Shape {
         return hollow ? dist == rad : dist <= rad;
     }
 
+    @Override
+    public boolean isPointInside(double x, double y, double z) {
+        x /= stretch.x;
+        y /= stretch.y;
+        z /= stretch.z;
+        double dist = x * x + y * y + z * z;
+        return hollow ? dist == rad * rad : dist <= rad * rad;
+    }
+
+    @Override
+    public void forEachBlock(Vec3d offset, Consumer<BlockPos> consumer) {
+        if (hollow || stretch.x == 0 || stretch.y == 0 || stretch.z == 0) {
+            Shape.super.forEachBlock(offset, consumer);
+            return;
+        }
+
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        double radSq = rad * rad;
+        int minX = MathHelper.floor(offset.x - stretch.x * rad);
+        int maxX = MathHelper.floor(offset.x + stretch.x * rad);
+        int maxY = MathHelper.floor(offset.y + stretch.y * rad);
+        int maxZ = MathHelper.floor(offset.z + stretch.z * rad);
+
+        for (int z = MathHelper.floor(offset.z - stretch.z * rad); z <= maxZ; z++) {
+            double dz = (z + 0.5 - offset.z) / stretch.z;
+            for (int y = MathHelper.floor(offset.y - stretch.y * rad); y <= maxY; y++) {
+                double dy = (y + 0.5 - offset.y) / stretch.y;
+                double remaining = radSq - dz * dz - dy * dy;
+                if (remaining < 0) {
+                    continue;
+                }
+                // each row of the sphere is a single unbroken span of blocks
+                double halfWidth = Math.sqrt(remaining) * stretch.x;
+                int rowEnd = Math.min(maxX, MathHelper.floor(offset.x + halfWidth - 0.5));
+                for (int x = Math.max(minX, MathHelper.ceil(offset.x - halfWidth - 0.5)); x <= rowEnd; x++) {
+                    consumer.accept(pos.set(x, y, z));
+                }
+            }
+        }
+    }
+
     @Override
     public Vec3d getLowerBound() {
         return stretch.multiply(-rad);
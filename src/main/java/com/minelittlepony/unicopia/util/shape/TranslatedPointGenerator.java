@@ -1,5 +1,8 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.function.Consumer;
+
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
 
@@ -33,6 +36,16 @@ record TranslatedPointGenerator (
         return ((Shape)source).isPointInside(point.subtract(offset));
     }
 
+    @Override
+    public boolean isPointInside(double x, double y, double z) {
+        return ((Shape)source).isPointInside(x - offset.x, y - offset.y, z - offset.z);
+    }
+
+    @Override
+    public void forEachBlock(Vec3d offset, Consumer<BlockPos> consumer) {
+        ((Shape)source).forEachBlock(this.offset.add(offset), consumer);
+    }
+
     @Override
     public Shape translate(Vec3d offset) {
         if (offset.equals(Vec3d.ZERO)) {